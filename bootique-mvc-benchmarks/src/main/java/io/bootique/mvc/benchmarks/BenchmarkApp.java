@@ -0,0 +1,48 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.benchmarks;
+
+import io.bootique.BQCoreModule;
+import io.bootique.BQRuntime;
+import io.bootique.Bootique;
+
+/**
+ * Creates Bootique runtimes with MVC modules for the benchmarks. The runtime is never started, only used as a DI
+ * container for the MVC services.
+ */
+class BenchmarkApp {
+
+    static BQRuntime create(String... properties) {
+        return Bootique.app()
+                .autoLoadModules()
+                .module(b -> {
+                    BQCoreModule.extend(b).setProperty("bq.mvc.templateBase", "classpath:");
+                    for (int i = 0; i < properties.length; i += 2) {
+                        BQCoreModule.extend(b).setProperty(properties[i], properties[i + 1]);
+                    }
+                })
+                .createRuntime();
+    }
+
+    // models of different size for the "small", "large" and "partials" templates
+    static BenchmarkView view(String templateType, String engine) {
+        int rows = "small".equals(templateType) ? 5 : 500;
+        return new BenchmarkView(templateType + "." + engine, rows);
+    }
+}
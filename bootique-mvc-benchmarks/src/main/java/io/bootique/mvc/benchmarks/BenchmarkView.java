@@ -0,0 +1,70 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.benchmarks;
+
+import io.bootique.mvc.AbstractView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A view with a model of configurable size used by the rendering benchmarks.
+ */
+public class BenchmarkView extends AbstractView {
+
+    private final String title;
+    private final List<Row> rows;
+
+    public BenchmarkView(String template, int rowCount) {
+        super(template);
+        this.title = "Benchmark";
+
+        this.rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(new Row("name" + i, "value & <" + i + ">"));
+        }
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    public static class Row {
+
+        private final String name;
+        private final String value;
+
+        public Row(String name, String value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.benchmarks;
+
+import io.bootique.mvc.Template;
+import io.bootique.mvc.renderer.RenderableTemplateCache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A benchmark-only copy of the TTL cache with the lock-based entries used before the entries became lock-free. The
+ * first caller compiles the template under a lock, while the callers of an expired entry "try" the lock, and get the
+ * stale value if another caller is already refreshing it. Serves as a baseline for
+ * {@link TemplateCacheContentionBenchmark}. Error back-off, background refresh and dependency tracking are left out.
+ */
+class LockingTemplateCache implements RenderableTemplateCache {
+
+    private final long ttlMs;
+    private final ConcurrentMap<String, Entry> cache;
+
+    LockingTemplateCache(long ttlMs) {
+        this.ttlMs = ttlMs;
+        this.cache = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public <T> T get(Template template, Function<Template, T> renderedTemplateMaker) {
+
+        String key = template.getCacheKey();
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            entry = cache.computeIfAbsent(key, k -> new Entry(ttlMs));
+        }
+
+        return entry.updateIfNeeded(template, renderedTemplateMaker);
+    }
+
+    static class Entry {
+
+        private final long ttlMs;
+        private final Lock lock;
+
+        volatile long expiresOn;
+        volatile Object value;
+
+        // source version of the current value, accessed under the update lock
+        private Object version;
+
+        Entry(long ttlMs) {
+            this.ttlMs = ttlMs;
+
+            // create as expired
+            this.expiresOn = System.currentTimeMillis() - 1;
+            this.lock = new ReentrantLock();
+        }
+
+        <T> T updateIfNeeded(Template t, Function<Template, T> tMaker) {
+            long expiredOn = this.expiresOn;
+            if (expiredOn >= System.currentTimeMillis()) {
+                return (T) value;
+            }
+
+            // we must wait on the first update, but after that we can reuse a stale template
+            if (value == null) {
+                lock.lock();
+            } else if (!lock.tryLock()) {
+                return (T) value;
+            }
+
+            try {
+                return updateNoLocks(expiredOn, t, tMaker);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private <T> T updateNoLocks(long expiredOn, Template t, Function<Template, T> tMaker) {
+
+            // if no one else updated the template while we were getting the lock
+            if (expiredOn == this.expiresOn) {
+                Object version = t.getVersion();
+                if (value == null || version == null || !version.equals(this.version)) {
+                    this.value = tMaker.apply(t);
+                    this.version = version;
+                }
+
+                long now = System.currentTimeMillis();
+                long expiresOn = now + ttlMs;
+                this.expiresOn = expiresOn < now ? Long.MAX_VALUE : expiresOn;
+            }
+
+            return (T) value;
+        }
+    }
+}
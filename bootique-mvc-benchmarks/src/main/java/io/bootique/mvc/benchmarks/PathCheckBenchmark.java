@@ -0,0 +1,101 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.benchmarks;
+
+import io.bootique.mvc.resolver.DefaultTemplate;
+import io.bootique.resource.FolderResourceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the template path traversal check with the original split-based implementation. Run with "-prof gc" to
+ * see the allocation difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathCheckBenchmark {
+
+    @Param({"t.mustache", "io/bootique/mvc/benchmarks/partials/row.mustache", "/a/../b/./c\\..\\d/t.mustache"})
+    public String path;
+
+    @Benchmark
+    public int singlePass() {
+        PathChecker.check(path);
+        return path.length();
+    }
+
+    @Benchmark
+    public int split() {
+        checkBySplitting(path);
+        return path.length();
+    }
+
+    // the original implementation
+    private static void checkBySplitting(String resourcePath) {
+
+        if (resourcePath.length() < 2) {
+            return;
+        }
+
+        int depth = 0;
+        String normalizedPath = resourcePath.replace('\\', '/');
+
+        for (String component : normalizedPath.split("/")) {
+            if (component.length() > 0) {
+                if ("..".equals(component)) {
+                    depth--;
+
+                    if (depth < 0) {
+                        throw new RuntimeException("Path is outside the template base: " + resourcePath);
+                    }
+
+                } else {
+                    depth++;
+                }
+            }
+        }
+    }
+
+    // gives access to the protected check
+    private static class PathChecker extends DefaultTemplate {
+
+        private PathChecker() {
+            super(new FolderResourceFactory("classpath:"), "", "", StandardCharsets.UTF_8, null, null);
+        }
+
+        static void check(String path) {
+            checkPathWithinBounds(path);
+        }
+    }
+}
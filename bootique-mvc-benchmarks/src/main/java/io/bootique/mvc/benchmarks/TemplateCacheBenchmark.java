@@ -0,0 +1,111 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.benchmarks;
+
+import io.bootique.mvc.Template;
+import io.bootique.mvc.renderer.RenderableTemplateCache;
+import io.bootique.mvc.resolver.DefaultTemplateResolver;
+import io.bootique.resource.FolderResourceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures template cache lookups under contention. The "compilation" here is just reading the template source, so
+ * the "noCache" case shows the cost of the I/O the caches are saving.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class TemplateCacheBenchmark {
+
+    @Param({"ttl", "bounded", "noCache"})
+    public String cacheType;
+
+    private RenderableTemplateCache cache;
+    private Template template;
+    private Function<Template, Integer> compiler;
+
+    @Setup
+    public void setup() {
+        switch (cacheType) {
+            case "ttl":
+                cache = RenderableTemplateCache.of(Duration.ofHours(1));
+                break;
+            case "bounded":
+                cache = RenderableTemplateCache.of(Duration.ofHours(1), 100);
+                break;
+            case "noCache":
+                cache = RenderableTemplateCache.ofNoCache();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown cache type: " + cacheType);
+        }
+
+        template = new DefaultTemplateResolver(
+                new FolderResourceFactory("classpath:"),
+                StandardCharsets.UTF_8,
+                null,
+                null).resolveByPath("io/bootique/mvc/benchmarks/small.mustache");
+
+        compiler = TemplateCacheBenchmark::readLength;
+    }
+
+    @Benchmark
+    public Integer get() {
+        return cache.get(template, compiler);
+    }
+
+    private static Integer readLength(Template template) {
+        char[] buffer = new char[1024];
+        int length = 0;
+
+        try (Reader in = template.reader()) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                length += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return length;
+    }
+}
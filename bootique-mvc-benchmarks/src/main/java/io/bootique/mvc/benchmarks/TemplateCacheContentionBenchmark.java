@@ -0,0 +1,95 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.benchmarks;
+
+import io.bootique.mvc.Template;
+import io.bootique.mvc.renderer.RenderableTemplateCache;
+import io.bootique.mvc.resolver.DefaultTemplateResolver;
+import io.bootique.resource.FolderResourceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures template cache lookups of a single hot template under heavy contention. With the short TTL, the entry
+ * expires all the time, so the callers keep racing to revalidate it. The "lock" cache type is a benchmark-only copy of
+ * the lock-based cache entries used before, serving as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+public class TemplateCacheContentionBenchmark {
+
+    @Param({"ttl", "bounded", "lock"})
+    public String cacheType;
+
+    @Param({"3600000", "1"})
+    public long ttlMs;
+
+    private RenderableTemplateCache cache;
+    private Template template;
+    private Function<Template, String> compiler;
+
+    @Setup
+    public void setup() {
+        Duration ttl = Duration.ofMillis(ttlMs);
+        switch (cacheType) {
+            case "bounded":
+                cache = RenderableTemplateCache.of(ttl, 100);
+                break;
+            case "lock":
+                cache = new LockingTemplateCache(ttlMs);
+                break;
+            default:
+                cache = RenderableTemplateCache.of(ttl);
+                break;
+        }
+
+        template = new DefaultTemplateResolver(
+                new FolderResourceFactory("classpath:"),
+                StandardCharsets.UTF_8,
+                null,
+                null).resolveByPath("io/bootique/mvc/benchmarks/small.mustache");
+
+        compiler = Template::getName;
+    }
+
+    @Benchmark
+    public String get() {
+        return cache.get(template, compiler);
+    }
+}
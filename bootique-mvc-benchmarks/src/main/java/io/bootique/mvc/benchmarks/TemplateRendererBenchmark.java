@@ -0,0 +1,88 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.benchmarks;
+
+import io.bootique.BQRuntime;
+import io.bootique.mvc.Template;
+import io.bootique.mvc.freemarker.FreemarkerTemplateRenderer;
+import io.bootique.mvc.mustache.MustacheTemplateRenderer;
+import io.bootique.mvc.renderer.TemplateRenderer;
+import io.bootique.mvc.resolver.TemplateResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering of cached templates of different shapes by each of the template engines, bypassing the
+ * JAX-RS layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRendererBenchmark {
+
+    @Param({"mustache", "ftl"})
+    public String engine;
+
+    @Param({"small", "large", "partials"})
+    public String templateType;
+
+    private BQRuntime runtime;
+    private TemplateRenderer renderer;
+    private Template template;
+    private BenchmarkView view;
+
+    @Setup
+    public void setup() {
+        runtime = BenchmarkApp.create("bq.mvc.templateTtl", "1h");
+
+        renderer = "mustache".equals(engine)
+                ? runtime.getInstance(MustacheTemplateRenderer.class)
+                : runtime.getInstance(FreemarkerTemplateRenderer.class);
+
+        view = BenchmarkApp.view(templateType, engine);
+        template = runtime.getInstance(TemplateResolver.class).resolve(view.getTemplateName(), view.getClass());
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.shutdown();
+    }
+
+    @Benchmark
+    public void render() throws IOException {
+        renderer.render(Writer.nullWriter(), template, view);
+    }
+}
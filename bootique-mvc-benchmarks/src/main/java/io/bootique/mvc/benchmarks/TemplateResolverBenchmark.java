@@ -0,0 +1,95 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.benchmarks;
+
+import io.bootique.mvc.Template;
+import io.bootique.mvc.renderer.ByExtensionTemplateRenderers;
+import io.bootique.mvc.renderer.RenderableTemplateCache;
+import io.bootique.mvc.renderer.TemplateRenderer;
+import io.bootique.mvc.renderer.TemplateRenderers;
+import io.bootique.mvc.resolver.DefaultTemplateResolver;
+import io.bootique.resource.FolderResourceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures resolving of a view template that was resolved before, i.e. the steady state of a running app. The
+ * "hotPath" benchmark includes everything that happens per request before the actual rendering (template resolution,
+ * renderer lookup and a compiled template cache hit). None of it is expected to allocate memory, which can be
+ * verified by running with "-prof gc" and checking "gc.alloc.rate.norm".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TemplateResolverBenchmark {
+
+    private DefaultTemplateResolver resolver;
+    private TemplateRenderers renderers;
+    private RenderableTemplateCache cache;
+    private Function<Template, Object> compiler;
+
+    @Setup
+    public void setup() {
+        resolver = new DefaultTemplateResolver(
+                new FolderResourceFactory("classpath:"),
+                StandardCharsets.UTF_8,
+                null,
+                null);
+
+        // the renderer is never called, only looked up
+        TemplateRenderer renderer = (out, template, model) -> {
+        };
+        renderers = new ByExtensionTemplateRenderers(Map.of(".mustache", renderer));
+        cache = RenderableTemplateCache.of(Duration.ofHours(1));
+        compiler = Template::getName;
+
+        hotPath();
+    }
+
+    @Benchmark
+    public Template resolve() {
+        return resolver.resolve("small.mustache", BenchmarkView.class);
+    }
+
+    @Benchmark
+    public Object hotPath() {
+        Template template = resolver.resolve("small.mustache", BenchmarkView.class);
+        template.getRenderer(renderers);
+        return cache.get(template, compiler);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.benchmarks;
+
+import io.bootique.BQRuntime;
+import io.bootique.mvc.AbstractView;
+import io.bootique.mvc.AbstractViewWriter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full view rendering pipeline, from template resolution to the encoded bytes written to a discarding
+ * stream, in the streaming and the "Content-Length" buffering modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ViewWriterBenchmark {
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    @Param({"mustache", "ftl"})
+    public String engine;
+
+    @Param({"small", "large"})
+    public String templateType;
+
+    @Param({"0", "65536"})
+    public String maxBufferedViewSize;
+
+    private BQRuntime runtime;
+    private AbstractViewWriter writer;
+    private BenchmarkView view;
+
+    @Setup
+    public void setup() {
+        runtime = BenchmarkApp.create(
+                "bq.mvc.templateTtl", "1h",
+                "bq.mvc.maxBufferedViewSize", maxBufferedViewSize);
+
+        writer = runtime.getInstance(AbstractViewWriter.class);
+        view = BenchmarkApp.view(templateType, engine);
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.shutdown();
+    }
+
+    @Benchmark
+    public void writeTo() throws IOException {
+        writer.writeTo(
+                view,
+                AbstractView.class,
+                AbstractView.class,
+                NO_ANNOTATIONS,
+                MediaType.TEXT_HTML_TYPE,
+                new MultivaluedHashMap<>(),
+                OutputStream.nullOutputStream());
+    }
+}
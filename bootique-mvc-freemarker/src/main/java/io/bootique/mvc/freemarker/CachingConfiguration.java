@@ -0,0 +1,131 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.mvc.freemarker;
+
+import freemarker.cache.NullCacheStorage;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.Version;
+import io.bootique.mvc.renderer.RenderableTemplateCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Freemarker configuration that stores compiled templates in the bootique-mvc {@link RenderableTemplateCache} instead
+ * of the Freemarker own cache. Since "#include" and "#import" directives call the same "getTemplate" method, included
+ * templates are cached (and reloaded) the same way as the root templates. Missing templates looked up with
+ * "ignore_missing" are cached as well. The templates that the bootique-mvc cache doesn't store (e.g. when
+ * "mvc.templateTtl" is not set) are looked up via the "uncachedConfig", relying on the Freemarker own cache.
+ *
+ * @since 4.0
+ */
+class CachingConfiguration extends Configuration {
+
+    // a marker of a missing template, as the cache can't store nulls
+    private static final Object MISSING = new Object();
+
+    private final RenderableTemplateCache templateCache;
+    private final Configuration uncachedConfig;
+    private final Function<io.bootique.mvc.Template, Object> loader;
+
+    CachingConfiguration(Version version, RenderableTemplateCache templateCache, Configuration uncachedConfig) {
+        super(version);
+        this.templateCache = templateCache;
+        this.uncachedConfig = uncachedConfig;
+
+        // a single loader for all templates, so that the cache calls don't allocate
+        this.loader = this::load;
+
+        // we are doing our own caching
+        setCacheStorage(new NullCacheStorage());
+    }
+
+    @Override
+    public Template getTemplate(
+            String name,
+            Locale locale,
+            Object customLookupCondition,
+            String encoding,
+            boolean parseAsFTL,
+            boolean ignoreMissing) throws IOException {
+
+        io.bootique.mvc.Template template = bqTemplate(name, customLookupCondition);
+
+        // non-FTL includes are not compiled, so there's nothing to cache
+        if (template == null || !parseAsFTL || !templateCache.stores(template)) {
+            return uncachedConfig.getTemplate(name, locale, customLookupCondition, encoding, parseAsFTL, ignoreMissing);
+        }
+
+        Object cached;
+        try {
+            cached = templateCache.get(template, loader);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (cached != MISSING) {
+            return (Template) cached;
+        }
+
+        if (ignoreMissing) {
+            return null;
+        }
+
+        // let Freemarker report the missing template the standard way
+        return super.getTemplate(name, locale, customLookupCondition, encoding, true, false);
+    }
+
+    private io.bootique.mvc.Template bqTemplate(String name, Object customLookupCondition) {
+
+        // an include of a template compiled by us. The binding is inherited by the includes from the root template
+        if (customLookupCondition instanceof TemplateBinding) {
+            return ((TemplateBinding) customLookupCondition).template(name);
+        }
+
+        // a root template. Other lookups (includes of the uncached templates, or someone using the configuration
+        // directly) are not cached by us
+        if (customLookupCondition instanceof io.bootique.mvc.Template) {
+            io.bootique.mvc.Template root = (io.bootique.mvc.Template) customLookupCondition;
+            return name.equals(root.getName()) ? root : null;
+        }
+
+        return null;
+    }
+
+    // loading from the template passed by the cache, as it may be decorated (e.g. to track child resources)
+    private Object load(io.bootique.mvc.Template template) {
+        try {
+            Template loaded = super.getTemplate(
+                    template.getName(),
+                    null,
+                    new TemplateBinding(template),
+                    template.getEncoding().name(),
+                    true,
+                    true);
+
+            return loaded != null ? loaded : MISSING;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateExceptionHandler;
 import io.bootique.BootiqueException;
+import io.bootique.mvc.renderer.RenderableTemplateCache;
 
 import jakarta.inject.Inject;
 import java.io.IOException;
@@ -38,10 +39,16 @@ class FreemarkerIntegrationService {
     private final Configuration config;
 
     @Inject
-    public FreemarkerIntegrationService() {
-        this.config = new Configuration(Configuration.getVersion());
+    public FreemarkerIntegrationService(RenderableTemplateCache templateCache) {
 
-        this.config.setTemplateLoader(new URLTemplateLoader() {
+        // the templates that are not stored by the template cache still rely on the Freemarker own cache
+        Configuration uncachedConfig = configure(new Configuration(Configuration.getVersion()));
+        this.config = configure(new CachingConfiguration(Configuration.getVersion(), templateCache, uncachedConfig));
+    }
+
+    private static Configuration configure(Configuration config) {
+
+        config.setTemplateLoader(new URLTemplateLoader() {
             @Override
             protected URL getURL(String name) {
                 try {
@@ -51,20 +58,23 @@ class FreemarkerIntegrationService {
                 }
             }
         });
-        this.config.setTemplateLookupStrategy(new TemplateLookupStrategy() {
+        config.setTemplateLookupStrategy(new TemplateLookupStrategy() {
             @Override
             public TemplateLookupResult lookup(TemplateLookupContext templateLookupContext) throws IOException {
 
-                // root template, can be different from the template we currently look up
+                // root template (or its binding), can be different from the template we currently look up
                 // (e.g. in case of #include directive)
-                io.bootique.mvc.Template bqTemplate = (io.bootique.mvc.Template) templateLookupContext
-                        .getCustomLookupCondition();
-                URL templateUrl = bqTemplate.getUrl(templateLookupContext.getTemplateName());
+                Object condition = templateLookupContext.getCustomLookupCondition();
+                String name = templateLookupContext.getTemplateName();
+                URL templateUrl = condition instanceof TemplateBinding
+                        ? ((TemplateBinding) condition).getUrl(name)
+                        : ((io.bootique.mvc.Template) condition).getUrl(name);
                 return templateLookupContext.lookupWithAcquisitionStrategy(templateUrl.toString());
             }
         });
-        this.config.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
-        this.config.setLogTemplateExceptions(false);
+        config.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        config.setLogTemplateExceptions(false);
+        return config;
     }
 
     Template getTemplate(io.bootique.mvc.Template bqTemplate) throws IOException {
@@ -45,4 +45,12 @@ public class FreemarkerTemplateRenderer implements TemplateRenderer {
             throw new IOException("Unexpected exception while processing template: " + template.getUrl().getPath(), ex);
         }
     }
+
+    /**
+     * @since 4.0
+     */
+    @Override
+    public void warmUp(Template template) throws IOException {
+        freemarkerIntegration.getTemplate(template);
+    }
 }
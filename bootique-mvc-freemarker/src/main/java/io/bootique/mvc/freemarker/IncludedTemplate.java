@@ -0,0 +1,136 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.mvc.freemarker;
+
+import io.bootique.mvc.Template;
+import io.bootique.mvc.renderer.RenderableTemplateCache;
+import io.bootique.mvc.renderer.TemplateCacheRouter;
+
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.Charset;
+
+/**
+ * A pointer to a template included or imported from another template. Resolves all resources relative to the root
+ * template, same as Freemarker template lookup does. Instances are reused by {@link TemplateBinding}, so the URL, the
+ * cache key and the cache route are only resolved once.
+ *
+ * @since 4.0
+ */
+class IncludedTemplate implements Template {
+
+    private final Template root;
+    private final String name;
+
+    private volatile URL url;
+    private volatile String cacheKey;
+    private volatile CacheBinding cache;
+
+    IncludedTemplate(Template root, String name) {
+        this.root = root;
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public URL getUrl() {
+
+        // No synchronization. No harm if the URL is resolved multiple times if called concurrently the first time
+        if (this.url == null) {
+            this.url = root.getUrl(name);
+        }
+
+        return url;
+    }
+
+    @Override
+    public String getCacheKey() {
+
+        // same as the URL, no harm if calculated multiple times
+        if (this.cacheKey == null) {
+            this.cacheKey = getUrl().toExternalForm();
+        }
+
+        return cacheKey;
+    }
+
+    @Override
+    public RenderableTemplateCache getCache(TemplateCacheRouter router) {
+
+        // remembering the router the binding was made for, same as DefaultTemplate does
+        CacheBinding cache = this.cache;
+        if (cache == null || cache.router != router) {
+            this.cache = cache = new CacheBinding(router, router.route(this));
+        }
+
+        return cache.cache;
+    }
+
+    @Override
+    public URL getUrl(String resourceName) {
+        return root.getUrl(resourceName);
+    }
+
+    @Override
+    public Reader reader() {
+        return root.reader(name);
+    }
+
+    @Override
+    public Reader reader(String resourceName) {
+        return root.reader(resourceName);
+    }
+
+    @Override
+    public Charset getEncoding() {
+        return root.getEncoding();
+    }
+
+    @Override
+    public Object getVersion() {
+        return root.getVersion(name);
+    }
+
+    @Override
+    public Object getVersion(String resourceName) {
+        return root.getVersion(resourceName);
+    }
+
+    // the includes are stored in the cache of the root template namespace
+    @Override
+    public String getNamespace() {
+        return root.getNamespace();
+    }
+
+    private static final class CacheBinding {
+
+        final TemplateCacheRouter router;
+        final RenderableTemplateCache cache;
+
+        CacheBinding(TemplateCacheRouter router, RenderableTemplateCache cache) {
+            this.router = router;
+            this.cache = cache;
+        }
+    }
+}
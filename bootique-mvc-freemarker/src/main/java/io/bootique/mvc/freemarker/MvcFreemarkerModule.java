@@ -24,6 +24,7 @@ import io.bootique.ModuleCrate;
 import io.bootique.di.Binder;
 import io.bootique.di.Provides;
 import io.bootique.mvc.MvcModule;
+import io.bootique.mvc.renderer.RenderableTemplateCache;
 
 import jakarta.inject.Singleton;
 
@@ -43,7 +44,7 @@ public class MvcFreemarkerModule implements BQModule {
 
     @Provides
     @Singleton
-    public FreemarkerIntegrationService createFreemarkerService() {
-        return new FreemarkerIntegrationService();
+    public FreemarkerIntegrationService createFreemarkerService(RenderableTemplateCache templateCache) {
+        return new FreemarkerIntegrationService(templateCache);
     }
 }
@@ -0,0 +1,77 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.mvc.freemarker;
+
+import io.bootique.mvc.Template;
+
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A custom lookup condition of the Freemarker templates compiled via the bootique-mvc template cache. Since the
+ * condition of the root template is inherited by all its "#include" and "#import" lookups, it keeps the pointers to
+ * the included templates, so that the steady-state include lookups don't allocate.
+ *
+ * @since 4.0
+ */
+class TemplateBinding {
+
+    // enough for the includes of any reasonable template, while protecting from unbounded growth if the include names
+    // are generated dynamically
+    static final int MAX_CACHED_INCLUDES = 64;
+
+    private final Template template;
+    private final ConcurrentMap<String, Template> includes;
+
+    TemplateBinding(Template template) {
+        this.template = template;
+        this.includes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the bound template if the name matches its name, or a template included from the bound template.
+     */
+    Template template(String name) {
+
+        if (name.equals(template.getName())) {
+            return template;
+        }
+
+        Template included = includes.get(name);
+        if (included != null) {
+            return included;
+        }
+
+        included = new IncludedTemplate(template, name);
+        if (includes.size() < MAX_CACHED_INCLUDES) {
+            Template existing = includes.putIfAbsent(name, included);
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        return included;
+    }
+
+    URL getUrl(String name) {
+        return template(name).getUrl();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.freemarker;
+
+import io.bootique.BQCoreModule;
+import io.bootique.BQRuntime;
+import io.bootique.junit5.BQTest;
+import io.bootique.junit5.BQTestFactory;
+import io.bootique.junit5.BQTestTool;
+import io.bootique.mvc.Template;
+import io.bootique.mvc.renderer.TemplateRenderers;
+import io.bootique.mvc.resolver.DefaultTemplate;
+import io.bootique.resource.FolderResourceFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@BQTest
+public class FreemarkerTemplateRenderer_TemplateTtlIT {
+
+    @BQTestTool
+    static BQTestFactory factory = new BQTestFactory();
+
+    @Test
+    public void default_FreemarkerCache(@TempDir Path tempDir) {
+
+        BQRuntime runtime = factory.app()
+                .autoLoadModules()
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateBase", tempDir.toString()))
+                .createRuntime();
+
+        TemplateRenderers renderers = runtime.getInstance(TemplateRenderers.class);
+        Template template = template(tempDir, "t.ftl");
+
+        writeTemplate(tempDir, "t.ftl", "v1: ${a}");
+        assertRender(renderers, template, Map.of("a", "A"), "v1: A\n");
+
+        // without "templateTtl" the templates are cached by Freemarker, that checks for changes every 5 sec.
+        writeTemplate(tempDir, "t.ftl", "v2: ${a}");
+        assertRender(renderers, template, Map.of("a", "A"), "v1: A\n");
+    }
+
+    @Test
+    public void ttl(@TempDir Path tempDir) throws InterruptedException {
+
+        BQRuntime runtime = factory.app()
+                .autoLoadModules()
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateBase", tempDir.toString()))
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateTtl", "300ms"))
+                .createRuntime();
+
+        TemplateRenderers renderers = runtime.getInstance(TemplateRenderers.class);
+        Template template = template(tempDir, "t.ftl");
+
+        writeTemplate(tempDir, "t.ftl", "v1: ${a}");
+        assertRender(renderers, template, Map.of("a", "A"), "v1: A\n");
+
+        writeTemplate(tempDir, "t.ftl", "v2: ${a}");
+        assertRender(renderers, template, Map.of("a", "A"), "v1: A\n");
+
+        Thread.sleep(301);
+        assertRender(renderers, template, Map.of("a", "A"), "v2: A\n");
+    }
+
+    @Test
+    public void ttl_Include(@TempDir Path tempDir) throws InterruptedException {
+
+        BQRuntime runtime = factory.app()
+                .autoLoadModules()
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateBase", tempDir.toString()))
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateTtl", "300ms"))
+                .createRuntime();
+
+        TemplateRenderers renderers = runtime.getInstance(TemplateRenderers.class);
+        Template template = template(tempDir, "t.ftl");
+
+        writeTemplate(tempDir, "t.ftl", "<#include \"i.ftl\">");
+        writeTemplate(tempDir, "i.ftl", "i1: ${a}");
+        assertRender(renderers, template, Map.of("a", "A"), "i1: A\n");
+
+        writeTemplate(tempDir, "i.ftl", "i2: ${a}");
+        assertRender(renderers, template, Map.of("a", "A"), "i1: A\n");
+
+        Thread.sleep(301);
+        assertRender(renderers, template, Map.of("a", "A"), "i2: A\n");
+    }
+
+    @Test
+    public void ttl_IncludeIgnoreMissing(@TempDir Path tempDir) throws InterruptedException {
+
+        BQRuntime runtime = factory.app()
+                .autoLoadModules()
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateBase", tempDir.toString()))
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateTtl", "300ms"))
+                .createRuntime();
+
+        TemplateRenderers renderers = runtime.getInstance(TemplateRenderers.class);
+        Template template = template(tempDir, "t.ftl");
+
+        writeTemplate(tempDir, "t.ftl", "t: <#include \"i.ftl\" ignore_missing=true>");
+        assertRender(renderers, template, Map.of("a", "A"), "t: \n");
+
+        // a missing include is cached too
+        writeTemplate(tempDir, "i.ftl", "i: ${a}");
+        assertRender(renderers, template, Map.of("a", "A"), "t: \n");
+
+        Thread.sleep(301);
+        assertRender(renderers, template, Map.of("a", "A"), "t: i: A\n\n");
+    }
+
+    private static Template template(Path targetDir, String name) {
+        return new DefaultTemplate(
+                new FolderResourceFactory(targetDir.toString()),
+                "",
+                name,
+                StandardCharsets.UTF_8,
+                null,
+                null);
+    }
+
+    private static void writeTemplate(Path targetDir, String name, String contents) {
+        try {
+            Files.write(targetDir.resolve(name), List.of(contents), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void assertRender(
+            TemplateRenderers renderers,
+            Template template,
+            Map<String, Object> context,
+            String expected) {
+
+        StringWriter out = new StringWriter();
+
+        try {
+            renderers.getRenderer(template).render(out, template, context);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        assertEquals(expected, out.toString());
+    }
+}
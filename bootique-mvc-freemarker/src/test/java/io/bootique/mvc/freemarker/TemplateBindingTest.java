@@ -0,0 +1,110 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.mvc.freemarker;
+
+import io.bootique.mvc.Template;
+import io.bootique.mvc.renderer.RenderableTemplateCache;
+import io.bootique.mvc.renderer.TemplateCacheRouter;
+import io.bootique.mvc.resolver.DefaultTemplate;
+import io.bootique.resource.FolderResourceFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemplateBindingTest {
+
+    @Test
+    public void template(@TempDir Path dir) {
+        Template root = root(dir);
+        TemplateBinding binding = new TemplateBinding(root);
+
+        assertSame(root, binding.template("t.ftl"));
+
+        Template i = binding.template("i.ftl");
+        assertEquals("i.ftl", i.getName());
+        assertTrue(i.getUrl().toExternalForm().endsWith("/i.ftl"));
+        assertEquals(i.getUrl().toExternalForm(), i.getCacheKey());
+        assertSame(i, binding.template("i.ftl"));
+    }
+
+    @Test
+    public void template_RoutedOnce(@TempDir Path dir) {
+
+        RenderableTemplateCache cache = RenderableTemplateCache.ofNoCache();
+        AtomicInteger routed = new AtomicInteger();
+        TemplateCacheRouter router = t -> {
+            routed.incrementAndGet();
+            return cache;
+        };
+
+        TemplateBinding binding = new TemplateBinding(root(dir));
+        for (int i = 0; i < 5; i++) {
+            assertSame(cache, binding.template("i1.ftl").getCache(router));
+            assertSame(cache, binding.template("i2.ftl").getCache(router));
+        }
+
+        assertEquals(2, routed.get());
+    }
+
+    @Test
+    public void template_Namespace(@TempDir Path dir) {
+
+        AtomicInteger namespaceCaches = new AtomicInteger();
+        RenderableTemplateCache cache = RenderableTemplateCache.ofNamespaces(
+                RenderableTemplateCache.ofNoCache(),
+                10,
+                () -> {
+                    namespaceCaches.incrementAndGet();
+                    return RenderableTemplateCache.ofNoCache();
+                });
+
+        Template root = new DefaultTemplate(
+                new FolderResourceFactory(dir.toString()),
+                "",
+                "t.ftl",
+                StandardCharsets.UTF_8,
+                null,
+                null,
+                null,
+                "tenant1");
+
+        // includes must be stored in the cache of the root template namespace
+        Template i = new TemplateBinding(root).template("i.ftl");
+        assertEquals("tenant1", i.getNamespace());
+
+        cache.get(i, t -> "");
+        assertEquals(1, namespaceCaches.get());
+    }
+
+    private static Template root(Path dir) {
+        return new DefaultTemplate(
+                new FolderResourceFactory(dir.toString()),
+                "",
+                "t.ftl",
+                StandardCharsets.UTF_8,
+                null,
+                null);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.instrumented;
+
+import com.codahale.metrics.MetricRegistry;
+import io.bootique.BQModule;
+import io.bootique.ModuleCrate;
+import io.bootique.di.Binder;
+import io.bootique.di.Provides;
+import io.bootique.metrics.MetricNaming;
+import io.bootique.mvc.MvcModule;
+import jakarta.inject.Singleton;
+
+/**
+ * Publishes view rendering and template cache metrics via the Bootique metrics module.
+ *
+ * @since 4.0
+ */
+public class MvcInstrumentedModule implements BQModule {
+
+    public static final MetricNaming METRIC_NAMING = MetricNaming.forModule(MvcModule.class);
+
+    @Override
+    public ModuleCrate crate() {
+        return ModuleCrate.of(this)
+                .description("Publishes Bootique MVC rendering and template cache metrics.")
+                .build();
+    }
+
+    @Override
+    public void configure(Binder binder) {
+        MvcModule.extend(binder)
+                .addListener(MvcMetrics.class)
+                .addCacheListener(MvcMetrics.class);
+    }
+
+    @Provides
+    @Singleton
+    MvcMetrics provideMvcMetrics(MetricRegistry metricRegistry) {
+        return new MvcMetrics(metricRegistry);
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.instrumented;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.bootique.mvc.AbstractView;
+import io.bootique.mvc.MvcListener;
+import io.bootique.mvc.Template;
+import io.bootique.mvc.renderer.TemplateCacheListener;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects MVC metrics. Aside from the totals, view metrics are collected per view class (up to
+ * {@link #MAX_VIEW_TYPES} classes), and template rendering and compilation metrics - per template engine (identified by
+ * the template file extension). Template names are not used in metric names, as they may be dynamic and unbounded.
+ *
+ * @since 4.0
+ */
+public class MvcMetrics implements MvcListener, TemplateCacheListener {
+
+    /**
+     * The maximum number of view classes to collect individual metrics for. The views of the classes beyond this
+     * limit are only included in the totals.
+     */
+    public static final int MAX_VIEW_TYPES = 500;
+
+    // a marker of the view classes over the limit
+    private static final ViewMetrics NO_METRICS = new ViewMetrics(null, null);
+
+    private final MetricRegistry metricRegistry;
+
+    private final Timer viewTime;
+    private final Histogram viewBytes;
+    private final Meter viewFailures;
+    private final Timer resolveTime;
+    private final Meter cacheHits;
+    private final Meter cacheMisses;
+    private final Meter cacheEvictions;
+    private final Timer compileTime;
+    private final Meter compileFailures;
+
+    private final ClassValue<ViewMetrics> viewMetrics;
+    private final AtomicInteger viewTypes;
+
+    // matched against the template name extension without extracting a substring. Copy-on-write, as new engines are
+    // only added a few times
+    private volatile EngineMetrics[] engineMetrics;
+
+    public MvcMetrics(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+
+        this.viewTime = metricRegistry.timer(viewTimeMetric());
+        this.viewBytes = metricRegistry.histogram(viewBytesMetric());
+        this.viewFailures = metricRegistry.meter(viewFailuresMetric());
+        this.resolveTime = metricRegistry.timer(resolveTimeMetric());
+        this.cacheHits = metricRegistry.meter(cacheHitsMetric());
+        this.cacheMisses = metricRegistry.meter(cacheMissesMetric());
+        this.cacheEvictions = metricRegistry.meter(cacheEvictionsMetric());
+        this.compileTime = metricRegistry.timer(compileTimeMetric());
+        this.compileFailures = metricRegistry.meter(compileFailuresMetric());
+
+        this.viewTypes = new AtomicInteger();
+        this.viewMetrics = new ClassValue<>() {
+            @Override
+            protected ViewMetrics computeValue(Class<?> type) {
+                return viewTypes.incrementAndGet() <= MAX_VIEW_TYPES ? createViewMetrics(type.getName()) : NO_METRICS;
+            }
+        };
+        this.engineMetrics = new EngineMetrics[0];
+    }
+
+    static String viewTimeMetric() {
+        return MvcInstrumentedModule.METRIC_NAMING.name("View", "Time");
+    }
+
+    static String viewTimeMetric(String viewType) {
+        return MvcInstrumentedModule.METRIC_NAMING.name("View", viewType, "Time");
+    }
+
+    static String viewBytesMetric() {
+        return MvcInstrumentedModule.METRIC_NAMING.name("View", "Bytes");
+    }
+
+    static String viewBytesMetric(String viewType) {
+        return MvcInstrumentedModule.METRIC_NAMING.name("View", viewType, "Bytes");
+    }
+
+    static String viewFailuresMetric() {
+        return MvcInstrumentedModule.METRIC_NAMING.name("View", "Failures");
+    }
+
+    static String resolveTimeMetric() {
+        return MvcInstrumentedModule.METRIC_NAMING.name("Resolver", "Time");
+    }
+
+    static String renderTimeMetric(String engine) {
+        return MvcInstrumentedModule.METRIC_NAMING.name("Engine", engine, "RenderTime");
+    }
+
+    static String compileTimeMetric() {
+        return MvcInstrumentedModule.METRIC_NAMING.name("TemplateCache", "CompileTime");
+    }
+
+    static String compileTimeMetric(String engine) {
+        return MvcInstrumentedModule.METRIC_NAMING.name("Engine", engine, "CompileTime");
+    }
+
+    static String compileFailuresMetric() {
+        return MvcInstrumentedModule.METRIC_NAMING.name("TemplateCache", "CompileFailures");
+    }
+
+    static String cacheHitsMetric() {
+        return MvcInstrumentedModule.METRIC_NAMING.name("TemplateCache", "Hits");
+    }
+
+    static String cacheMissesMetric() {
+        return MvcInstrumentedModule.METRIC_NAMING.name("TemplateCache", "Misses");
+    }
+
+    static String cacheEvictionsMetric() {
+        return MvcInstrumentedModule.METRIC_NAMING.name("TemplateCache", "Evictions");
+    }
+
+    @Override
+    public void onTemplateResolved(Template template, long elapsedNanos) {
+        resolveTime.update(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onTemplateRendered(Template template, long elapsedNanos) {
+        engineMetrics(template).renderTime.update(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onViewWritten(AbstractView view, long elapsedNanos, long bytes) {
+        viewTime.update(elapsedNanos, TimeUnit.NANOSECONDS);
+        viewBytes.update(bytes);
+
+        ViewMetrics metrics = viewMetrics.get(view.getClass());
+        if (metrics != NO_METRICS) {
+            metrics.time.update(elapsedNanos, TimeUnit.NANOSECONDS);
+            metrics.bytes.update(bytes);
+        }
+    }
+
+    @Override
+    public void onViewFailed(AbstractView view, Throwable error) {
+        viewFailures.mark();
+    }
+
+    @Override
+    public void onHit(Template template) {
+        cacheHits.mark();
+    }
+
+    @Override
+    public void onMiss(Template template) {
+        cacheMisses.mark();
+    }
+
+    @Override
+    public void onEviction(String templateUrl) {
+        cacheEvictions.mark();
+    }
+
+    @Override
+    public void onCompiled(Template template, long elapsedNanos) {
+        compileTime.update(elapsedNanos, TimeUnit.NANOSECONDS);
+        engineMetrics(template).compileTime.update(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onCompileFailed(Template template, RuntimeException error) {
+        compileFailures.mark();
+    }
+
+    private EngineMetrics engineMetrics(Template template) {
+
+        String name = template.getName();
+        int dot = name.lastIndexOf('.');
+        int len = name.length() - dot - 1;
+
+        if (dot >= 0 && len > 0) {
+            for (EngineMetrics m : engineMetrics) {
+                if (m.engine.length() == len && name.regionMatches(dot + 1, m.engine, 0, len)) {
+                    return m;
+                }
+            }
+        }
+
+        return addEngineMetrics(engine(name));
+    }
+
+    private synchronized EngineMetrics addEngineMetrics(String engine) {
+
+        EngineMetrics[] current = this.engineMetrics;
+        for (EngineMetrics m : current) {
+            if (m.engine.equals(engine)) {
+                return m;
+            }
+        }
+
+        EngineMetrics added = new EngineMetrics(engine);
+        EngineMetrics[] expanded = Arrays.copyOf(current, current.length + 1);
+        expanded[current.length] = added;
+        this.engineMetrics = expanded;
+        return added;
+    }
+
+    // same as the renderer lookup, the engine is identified by the template extension
+    static String engine(String templateName) {
+        int dot = templateName.lastIndexOf('.');
+        return dot >= 0 && dot < templateName.length() - 1 ? templateName.substring(dot + 1) : "unknown";
+    }
+
+    private static class ViewMetrics {
+
+        final Timer time;
+        final Histogram bytes;
+
+        ViewMetrics(Timer time, Histogram bytes) {
+            this.time = time;
+            this.bytes = bytes;
+        }
+    }
+
+    private ViewMetrics createViewMetrics(String viewType) {
+        return new ViewMetrics(
+                metricRegistry.timer(viewTimeMetric(viewType)),
+                metricRegistry.histogram(viewBytesMetric(viewType)));
+    }
+
+    private class EngineMetrics {
+
+        final String engine;
+        final Timer renderTime;
+        final Timer compileTime;
+
+        EngineMetrics(String engine) {
+            this.engine = engine;
+            this.renderTime = metricRegistry.timer(renderTimeMetric(engine));
+            this.compileTime = metricRegistry.timer(compileTimeMetric(engine));
+        }
+    }
+}
@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * A template renderer that locates child templates based on the location of the root template.
@@ -43,8 +44,12 @@ public class MustacheTemplateRenderer implements TemplateRenderer {
     private final ThreadLocal<Template> templateContext;
     private final MustacheFactory mustacheFactory;
 
+    // a method reference is a new object on every evaluation, so create it once
+    private final Function<Template, Mustache> compiler;
+
     public MustacheTemplateRenderer(RenderableTemplateCache templateCache) {
         this.templateCache = templateCache;
+        this.compiler = this::compile;
 
         this.templateContext = new ThreadLocal<>();
         this.mustacheFactory = new DefaultMustacheFactory(new ContextAwareMustacheResolver());
@@ -52,10 +57,18 @@ public class MustacheTemplateRenderer implements TemplateRenderer {
 
     @Override
     public void render(Writer out, Template template, Object rootModel) throws IOException {
-        Mustache mustache = templateCache.get(template, this::compile);
+        Mustache mustache = templateCache.get(template, compiler);
         mustache.execute(out, rootModel).flush();
     }
 
+    /**
+     * @since 4.0
+     */
+    @Override
+    public void warmUp(Template template) {
+        templateCache.get(template, compiler);
+    }
+
     /**
      * Encapsulates context-aware Mustache template compilation logic.
      */
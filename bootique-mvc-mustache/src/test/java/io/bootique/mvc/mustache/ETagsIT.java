@@ -0,0 +1,103 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.mustache;
+
+import io.bootique.BQCoreModule;
+import io.bootique.BQRuntime;
+import io.bootique.Bootique;
+import io.bootique.jersey.JerseyModule;
+import io.bootique.jetty.junit5.JettyTester;
+import io.bootique.junit5.BQApp;
+import io.bootique.junit5.BQTest;
+import io.bootique.junit5.BQTestTool;
+import io.bootique.mvc.mustache.view.ConcreteView;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@BQTest
+public class ETagsIT {
+
+    @BQTestTool
+    static final JettyTester jetty = JettyTester.create();
+
+    @BQApp
+    public static BQRuntime app = Bootique.app("-s")
+            .autoLoadModules()
+            .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateBase", "classpath:"))
+            .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.etags", "true"))
+            .module(b -> JerseyModule.extend(b).addApiResource(Api.class))
+            .module(jetty.moduleReplacingConnectors())
+            .createRuntime();
+
+    @Test
+    public void eTag() {
+        Response r1 = jetty.getTarget().path("/v1").queryParam("p", "x").request().get();
+        assertEquals(Response.Status.OK.getStatusCode(), r1.getStatus());
+        assertEquals("\nv1_string_x_number_564", r1.readEntity(String.class));
+
+        String eTag = r1.getHeaderString(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        Response r2 = jetty.getTarget().path("/v1").queryParam("p", "x").request().get();
+        assertEquals(eTag, r2.getHeaderString(HttpHeaders.ETAG), "ETag must be stable for the same content");
+
+        Response r3 = jetty.getTarget().path("/v1").queryParam("p", "y").request().get();
+        assertNotEquals(eTag, r3.getHeaderString(HttpHeaders.ETAG), "ETag must change with content");
+    }
+
+    @Test
+    public void ifNoneMatch() {
+        Response r1 = jetty.getTarget().path("/v1").queryParam("p", "x").request().get();
+        String eTag = r1.getHeaderString(HttpHeaders.ETAG);
+
+        Response r2 = jetty.getTarget().path("/v1").queryParam("p", "x").request()
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .get();
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), r2.getStatus());
+        assertEquals(eTag, r2.getHeaderString(HttpHeaders.ETAG));
+
+        Response r3 = jetty.getTarget().path("/v1").queryParam("p", "y").request()
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .get();
+        assertEquals(Response.Status.OK.getStatusCode(), r3.getStatus());
+        assertEquals("\nv1_string_y_number_564", r3.readEntity(String.class));
+    }
+
+    @Path("/")
+    @Produces(MediaType.TEXT_PLAIN)
+    public static class Api {
+
+        @GET
+        @Path("/v1")
+        public ConcreteView getV1(@QueryParam("p") String p) {
+            MvcMustacheModuleIT.Model m = new MvcMustacheModuleIT.Model();
+            m.setProp1(p);
+            m.setProp2(564);
+            return new ConcreteView("MvcMustacheModuleIT_v1.mustache", m);
+        }
+    }
+}
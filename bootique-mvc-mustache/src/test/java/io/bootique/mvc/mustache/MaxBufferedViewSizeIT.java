@@ -0,0 +1,99 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.mustache;
+
+import io.bootique.BQCoreModule;
+import io.bootique.BQRuntime;
+import io.bootique.Bootique;
+import io.bootique.jersey.JerseyModule;
+import io.bootique.jetty.junit5.JettyTester;
+import io.bootique.junit5.BQApp;
+import io.bootique.junit5.BQTest;
+import io.bootique.junit5.BQTestTool;
+import io.bootique.mvc.mustache.view.ConcreteView;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@BQTest
+public class MaxBufferedViewSizeIT {
+
+    @BQTestTool
+    static final JettyTester jetty = JettyTester.create();
+
+    @BQApp
+    public static BQRuntime app = Bootique.app("-s")
+            .autoLoadModules()
+            .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateBase", "classpath:"))
+            .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.maxBufferedViewSize", "100"))
+            .module(b -> JerseyModule.extend(b).addApiResource(Api.class))
+            .module(jetty.moduleReplacingConnectors())
+            .createRuntime();
+
+    @Test
+    public void buffered() {
+        Response r = jetty.getTarget().path("/buffered").request().get();
+        assertEquals(Response.Status.OK.getStatusCode(), r.getStatus());
+        assertEquals("24", r.getHeaderString(HttpHeaders.CONTENT_LENGTH));
+        assertEquals("\nv1_string_p1_number_564", r.readEntity(String.class));
+    }
+
+    @Test
+    public void overMaxSize() {
+        Response r = jetty.getTarget().path("/over-max-size").request().get();
+        assertEquals(Response.Status.OK.getStatusCode(), r.getStatus());
+        assertEquals("\nv1_string_p1_number_564", r.readEntity(String.class));
+    }
+
+    @Path("/")
+    @Produces(MediaType.TEXT_PLAIN)
+    public static class Api {
+
+        @GET
+        @Path("/buffered")
+        public ConcreteView getBuffered() {
+            return new ConcreteView("MvcMustacheModuleIT_v1.mustache", model());
+        }
+
+        @GET
+        @Path("/over-max-size")
+        public ConcreteView getOverMaxSize() {
+            // anonymous view class is in a different package, so using an absolute template path
+            return new ConcreteView("/io/bootique/mvc/mustache/view/MvcMustacheModuleIT_v1.mustache", model()) {
+                @Override
+                public Integer getMaxBufferedSize() {
+                    return 10;
+                }
+            };
+        }
+
+        private static MvcMustacheModuleIT.Model model() {
+            MvcMustacheModuleIT.Model m = new MvcMustacheModuleIT.Model();
+            m.setProp1("p1");
+            m.setProp2(564);
+            return m;
+        }
+    }
+}
@@ -93,6 +93,39 @@ public class MustacheTemplateRenderer_TemplateTtlIT {
         assertRender(renderer, template, Map.of("a", "A"), "v2: A\n");
     }
 
+    @Test
+    public void templateWatch_Partials(@TempDir Path tempDir) throws InterruptedException {
+
+        BQRuntime runtime = factory.app()
+                .autoLoadModules()
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateBase", tempDir.toString()))
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateWatch", "true"))
+                .createRuntime();
+
+        MustacheTemplateRenderer renderer = runtime.getInstance(MustacheTemplateRenderer.class);
+
+        Template t1 = template(tempDir, "t1.mustache");
+        Template t2 = template(tempDir, "t2.mustache");
+        Template p = template(tempDir, "p.mustache");
+
+        writeTemplate(t1, "t1: {{> p}}");
+        writeTemplate(t2, "t2: {{> p}}");
+        writeTemplate(p, "p1 {{a}}");
+
+        assertRender(renderer, t1, Map.of("a", "A"), "t1: p1 A\n\n");
+        assertRender(renderer, t2, Map.of("a", "A"), "t2: p1 A\n\n");
+
+        writeTemplate(p, "p2 {{a}}");
+
+        // the change is detected asynchronously, so wait for it
+        for (int i = 0; i < 100 && !render(renderer, t1, Map.of("a", "A")).startsWith("t1: p2"); i++) {
+            Thread.sleep(100);
+        }
+
+        assertRender(renderer, t1, Map.of("a", "A"), "t1: p2 A\n\n");
+        assertRender(renderer, t2, Map.of("a", "A"), "t2: p2 A\n\n");
+    }
+
     private static Template template(Path targetDir, String name) {
         return new DefaultTemplate(
                 new FolderResourceFactory(targetDir.toString()),
@@ -119,6 +152,10 @@ public class MustacheTemplateRenderer_TemplateTtlIT {
             Template template,
             Map<String, Object> context,
             String expected) {
+        assertEquals(expected, render(renderer, template, context));
+    }
+
+    private static String render(MustacheTemplateRenderer renderer, Template template, Map<String, Object> context) {
 
         StringWriter out = new StringWriter();
 
@@ -128,6 +165,6 @@ public class MustacheTemplateRenderer_TemplateTtlIT {
             throw new RuntimeException(e);
         }
 
-        assertEquals(expected, out.toString());
+        return out.toString();
     }
 }
@@ -0,0 +1,138 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.mustache;
+
+import io.bootique.BQCoreModule;
+import io.bootique.BQRuntime;
+import io.bootique.jetty.junit5.JettyTester;
+import io.bootique.junit5.BQTest;
+import io.bootique.junit5.BQTestFactory;
+import io.bootique.junit5.BQTestTool;
+import io.bootique.mvc.Template;
+import io.bootique.mvc.resolver.DefaultTemplate;
+import io.bootique.resource.FolderResourceFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@BQTest
+public class TemplateWarmupIT {
+
+    @BQTestTool
+    static BQTestFactory factory = new BQTestFactory();
+
+    @Test
+    public void scan(@TempDir Path tempDir) throws IOException {
+
+        Files.createDirectories(tempDir.resolve("a"));
+        Files.writeString(tempDir.resolve("t1.mustache"), "t1_v1: {{x}}");
+        Files.writeString(tempDir.resolve("a/t2.mustache"), "t2_v1: {{x}}");
+
+        JettyTester jetty = JettyTester.create();
+        BQRuntime runtime = factory.app("-s")
+                .autoLoadModules()
+                .module(jetty.moduleReplacingConnectors())
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateBase", tempDir.toString()))
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateTtl", "1h"))
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.warmup.scan", "true"))
+                .createRuntime();
+
+        // the warmup runs on server startup
+        runtime.run();
+
+        MustacheTemplateRenderer renderer = runtime.getInstance(MustacheTemplateRenderer.class);
+
+        // templates changed after the warmup should not be seen by the app, as they were compiled and cached
+        Files.writeString(tempDir.resolve("t1.mustache"), "t1_v2: {{x}}");
+        Files.writeString(tempDir.resolve("a/t2.mustache"), "t2_v2: {{x}}");
+
+        assertEquals("t1_v1: X", render(renderer, template(tempDir, "", "t1.mustache")));
+        assertEquals("t2_v1: X", render(renderer, template(tempDir, "a/", "t2.mustache")));
+    }
+
+    @Test
+    public void templates(@TempDir Path tempDir) throws IOException {
+
+        Files.writeString(tempDir.resolve("t1.mustache"), "t1_v1: {{x}}");
+        Files.writeString(tempDir.resolve("t2.mustache"), "t2_v1: {{x}}");
+
+        JettyTester jetty = JettyTester.create();
+        BQRuntime runtime = factory.app("-s")
+                .autoLoadModules()
+                .module(jetty.moduleReplacingConnectors())
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateBase", tempDir.toString()))
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateTtl", "1h"))
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.warmup.templates[0]", "t1.mustache"))
+                .createRuntime();
+
+        // the warmup runs on server startup
+        runtime.run();
+
+        MustacheTemplateRenderer renderer = runtime.getInstance(MustacheTemplateRenderer.class);
+
+        Files.writeString(tempDir.resolve("t1.mustache"), "t1_v2: {{x}}");
+        Files.writeString(tempDir.resolve("t2.mustache"), "t2_v2: {{x}}");
+
+        assertEquals("t1_v1: X", render(renderer, template(tempDir, "", "t1.mustache")));
+        assertEquals("t2_v2: X", render(renderer, template(tempDir, "", "t2.mustache")));
+    }
+
+    @Test
+    public void noServer(@TempDir Path tempDir) throws IOException {
+
+        Files.writeString(tempDir.resolve("t1.mustache"), "t1_v1: {{x}}");
+
+        BQRuntime runtime = factory.app()
+                .autoLoadModules()
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateBase", tempDir.toString()))
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.templateTtl", "1h"))
+                .module(b -> BQCoreModule.extend(b).setProperty("bq.mvc.warmup.templates[0]", "t1.mustache"))
+                .createRuntime();
+
+        MustacheTemplateRenderer renderer = runtime.getInstance(MustacheTemplateRenderer.class);
+
+        // without the server, the templates are not warmed up and are compiled on first access
+        Files.writeString(tempDir.resolve("t1.mustache"), "t1_v2: {{x}}");
+        assertEquals("t1_v2: X", render(renderer, template(tempDir, "", "t1.mustache")));
+    }
+
+    private static Template template(Path baseDir, String path, String name) {
+        return new DefaultTemplate(
+                new FolderResourceFactory(baseDir.toString()),
+                path,
+                name,
+                StandardCharsets.UTF_8,
+                null,
+                null);
+    }
+
+    private static String render(MustacheTemplateRenderer renderer, Template template) throws IOException {
+        StringWriter out = new StringWriter();
+        renderer.render(out, template, Map.of("x", "X"));
+        return out.toString();
+    }
+}
@@ -51,4 +51,28 @@ public abstract class AbstractView {
 	public Charset getEncoding() {
 		return encoding;
 	}
+
+	/**
+	 * Returns the maximum size in bytes of the rendered view that should be buffered in memory, so that the response
+	 * can be sent with a "Content-Length" header. Views whose output exceeds this size are streamed. Returns null
+	 * by default, meaning that the app-wide "mvc.maxBufferedViewSize" setting applies. Subclasses may override this
+	 * method to turn buffering on or off for a given view (zero disables buffering).
+	 *
+	 * @since 4.0
+	 */
+	public Integer getMaxBufferedSize() {
+		return null;
+	}
+
+	/**
+	 * Returns a namespace of the view template, such as a tenant key, used to enforce per-namespace template cache
+	 * quotas (see "mvc.templateNamespaceQuota"). Returns null by default, meaning that the namespace is the first path
+	 * segment of the template name (e.g. "tenant1" for "tenant1/page.mustache"), and the templates with no path
+	 * segments are not a part of any namespace.
+	 *
+	 * @since 4.0
+	 */
+	public String getTemplateNamespace() {
+		return null;
+	}
 }
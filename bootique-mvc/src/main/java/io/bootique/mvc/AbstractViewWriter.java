@@ -21,25 +21,71 @@ package io.bootique.mvc;
 
 import io.bootique.mvc.renderer.TemplateRenderers;
 import io.bootique.mvc.resolver.TemplateResolver;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.ext.MessageBodyWriter;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
 
 public class AbstractViewWriter implements MessageBodyWriter<AbstractView> {
 
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    // keeping enough writers for a reasonably busy app, while not holding on to buffers after request spikes
+    private static final int MAX_IDLE_WRITERS = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
     private final TemplateResolver templateResolver;
     private final TemplateRenderers templateRenderers;
+    private final EncodingWriterPool writerPool;
+    private final int maxBufferedSize;
+    private final ViewOutputCache outputCache;
+    private final MvcListener[] listeners;
 
     public AbstractViewWriter(TemplateResolver templateResolver, TemplateRenderers templateRenderers) {
+        this(templateResolver, templateRenderers, DEFAULT_BUFFER_SIZE, 0, null);
+    }
+
+    /**
+     * @param bufferSize      the size of the character buffer used to encode the view output
+     * @param maxBufferedSize the max size in bytes of the view output that is kept in memory to send the response
+     *                        with "Content-Length". Zero means the output is always streamed.
+     * @param outputCache     a cache for the output of {@link CacheableView} views. If null, no caching is done.
+     * @since 4.0
+     */
+    public AbstractViewWriter(
+            TemplateResolver templateResolver,
+            TemplateRenderers templateRenderers,
+            int bufferSize,
+            int maxBufferedSize,
+            ViewOutputCache outputCache) {
+        this(templateResolver, templateRenderers, bufferSize, maxBufferedSize, outputCache, List.of());
+    }
+
+    /**
+     * @param listeners listeners notified of the rendering events
+     * @since 4.0
+     */
+    public AbstractViewWriter(
+            TemplateResolver templateResolver,
+            TemplateRenderers templateRenderers,
+            int bufferSize,
+            int maxBufferedSize,
+            ViewOutputCache outputCache,
+            Collection<MvcListener> listeners) {
+
         this.templateResolver = templateResolver;
         this.templateRenderers = templateRenderers;
+        this.writerPool = new EncodingWriterPool(bufferSize, MAX_IDLE_WRITERS);
+        this.maxBufferedSize = maxBufferedSize;
+        this.outputCache = outputCache;
+        this.listeners = listeners.toArray(new MvcListener[0]);
     }
 
     @Override
@@ -63,12 +109,157 @@ public class AbstractViewWriter implements MessageBodyWriter<AbstractView> {
             OutputStream entityStream)
             throws IOException {
 
-        Writer out = new OutputStreamWriter(entityStream, t.getEncoding());
-        Template template = templateResolver.resolve(t.getTemplateName(), t.getClass());
-        templateRenderers.getRenderer(template).render(out, template, t);
+        // no timing overhead unless someone is listening
+        if (listeners.length == 0) {
+            write(t, httpHeaders, entityStream);
+            return;
+        }
+
+        long start = System.nanoTime();
+        long bytes;
+        try {
+            bytes = write(t, httpHeaders, entityStream);
+        } catch (IOException | RuntimeException e) {
+            for (MvcListener l : listeners) {
+                l.onViewFailed(t, e);
+            }
+
+            throw e;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        for (MvcListener l : listeners) {
+            l.onViewWritten(t, elapsed, bytes);
+        }
+    }
+
+    private long write(AbstractView t, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+            throws IOException {
+
+        Object cacheKey = cacheKey(t);
+        if (cacheKey != null) {
+            byte[] bytes = renderToBytesCached(t, cacheKey);
+            httpHeaders.putSingle(HttpHeaders.CONTENT_LENGTH, bytes.length);
+            entityStream.write(bytes);
+            entityStream.flush();
+            return bytes.length;
+        }
+
+        EncodingWriter out = writerPool.acquire(entityStream, t.getEncoding(), maxBufferedSize(t));
+        try {
+            render(t, out);
+            out.endInput();
+
+            // if the whole view fit in the buffer, nothing is written to the stream yet, and we can still set headers
+            int size = out.getBufferedSize();
+            if (size >= 0) {
+                httpHeaders.putSingle(HttpHeaders.CONTENT_LENGTH, size);
+            }
+
+            // flush but do not close the underlying stream
+            out.finish();
+            return out.getBytesWritten();
+        } finally {
+            writerPool.release(out);
+        }
+    }
+
+    /**
+     * Renders the view fully in memory, returning the encoded bytes. For {@link CacheableView} views, the bytes may
+     * come from the output cache. The returned array must not be modified by the caller.
+     *
+     * @since 4.0
+     */
+    public byte[] renderToBytes(AbstractView view) throws IOException {
+
+        if (listeners.length == 0) {
+            return renderToBytesNoListeners(view);
+        }
+
+        long start = System.nanoTime();
+        byte[] bytes;
+        try {
+            bytes = renderToBytesNoListeners(view);
+        } catch (IOException | RuntimeException e) {
+            for (MvcListener l : listeners) {
+                l.onViewFailed(view, e);
+            }
+
+            throw e;
+        }
 
-        // flush but do not close the underlying stream
-        out.flush();
+        long elapsed = System.nanoTime() - start;
+        for (MvcListener l : listeners) {
+            l.onViewWritten(view, elapsed, bytes.length);
+        }
+
+        return bytes;
+    }
+
+    private byte[] renderToBytesNoListeners(AbstractView view) throws IOException {
+        Object cacheKey = cacheKey(view);
+        return cacheKey != null ? renderToBytesCached(view, cacheKey) : renderToBytesNoCache(view);
+    }
+
+    private Object cacheKey(AbstractView view) {
+        return outputCache != null && view instanceof CacheableView ? ((CacheableView) view).getCacheKey() : null;
+    }
+
+    private byte[] renderToBytesCached(AbstractView view, Object cacheKey) throws IOException {
+
+        byte[] cached = outputCache.get(view, cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        byte[] bytes = renderToBytesNoCache(view);
+        outputCache.put(view, cacheKey, bytes, ((CacheableView) view).getCacheTtl().toMillis());
+        return bytes;
+    }
+
+    private byte[] renderToBytesNoCache(AbstractView view) throws IOException {
+
+        // no stream, as the writer never leaves the buffering mode with unlimited buffer size
+        EncodingWriter out = writerPool.acquire(null, view.getEncoding(), Integer.MAX_VALUE);
+        try {
+            render(view, out);
+            out.endInput();
+            return out.toByteArray();
+        } finally {
+            writerPool.release(out);
+        }
     }
 
+    private void render(AbstractView view, Writer out) throws IOException {
+
+        if (listeners.length == 0) {
+            Template template = resolveTemplate(view);
+            template.getRenderer(templateRenderers).render(out, template, view);
+            return;
+        }
+
+        long start = System.nanoTime();
+        Template template = resolveTemplate(view);
+        long resolved = System.nanoTime();
+
+        for (MvcListener l : listeners) {
+            l.onTemplateResolved(template, resolved - start);
+        }
+
+        template.getRenderer(templateRenderers).render(out, template, view);
+        long rendered = System.nanoTime();
+
+        for (MvcListener l : listeners) {
+            l.onTemplateRendered(template, rendered - resolved);
+        }
+    }
+
+    private Template resolveTemplate(AbstractView view) {
+        return templateResolver.resolve(view.getTemplateName(), view.getTemplateNamespace(), view.getClass());
+    }
+
+    private int maxBufferedSize(AbstractView view) {
+        Integer viewMaxBufferedSize = view.getMaxBufferedSize();
+        return viewMaxBufferedSize != null ? viewMaxBufferedSize : maxBufferedSize;
+    }
 }
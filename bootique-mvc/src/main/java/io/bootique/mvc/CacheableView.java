@@ -0,0 +1,43 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.mvc;
+
+import java.time.Duration;
+
+/**
+ * An optional interface for {@link AbstractView} subclasses whose rendered output is entirely determined by a small
+ * key (e.g. an entity id and a locale). Output of such views is cached in memory as encoded bytes, and the template
+ * is not executed again until the entry expires.
+ *
+ * @since 4.0
+ */
+public interface CacheableView {
+
+    /**
+     * Returns a key that identifies the rendered output of this view among the views of the same class and template.
+     * Must have proper "equals" and "hashCode" implementations. If null is returned, the view output is not cached.
+     */
+    Object getCacheKey();
+
+    /**
+     * Returns for how long the rendered output can be reused.
+     */
+    Duration getCacheTtl();
+}
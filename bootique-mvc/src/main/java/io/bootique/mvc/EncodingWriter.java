@@ -0,0 +1,300 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.mvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * A reusable Writer that accumulates characters in a fixed-size buffer and encodes them into the underlying
+ * OutputStream in large chunks. Unlike {@link java.io.OutputStreamWriter}, it can be reset and reused for another
+ * stream and encoding, so that its buffers can be pooled between requests. Optionally the writer can keep all the
+ * encoded output in memory up to a certain size, allowing the caller to learn the full content length before any bytes
+ * are sent to the stream. Not thread-safe.
+ *
+ * @since 4.0
+ */
+class EncodingWriter extends Writer {
+
+    // don't let the writers in the pool hold on to large byte buffers grown while rendering big views
+    private static final int MAX_RETAINED_BYTES = 256 * 1024;
+
+    // the smallest buffer that can hold a surrogate pair
+    static final int MIN_BUFFER_SIZE = 2;
+
+    private final char[] chars;
+    private ByteBuffer bytes;
+
+    private CharsetEncoder encoder;
+    private OutputStream out;
+    private int charsLen;
+    private int maxBufferedSize;
+    private boolean streaming;
+    private boolean inputEnded;
+    private long bytesWritten;
+
+    EncodingWriter(int bufferSize) {
+
+        // a high surrogate may stay in the buffer until its pair arrives, so there must be room for at least one more
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException(
+                    "Buffer size must be at least " + MIN_BUFFER_SIZE + ": " + bufferSize);
+        }
+
+        this.chars = new char[bufferSize];
+
+        // sized to fit an encoded buffer in most cases, but encoding loop will handle overflows if not
+        this.bytes = ByteBuffer.allocate(bufferSize * 2);
+    }
+
+    /**
+     * Prepares this writer to write to a new stream.
+     */
+    EncodingWriter reset(OutputStream out, Charset encoding) {
+        return reset(out, encoding, 0);
+    }
+
+    /**
+     * Prepares this writer to write to a new stream, keeping up to "maxBufferedSize" bytes of output in memory before
+     * starting to write to the stream. Zero "maxBufferedSize" means no buffering.
+     */
+    EncodingWriter reset(OutputStream out, Charset encoding, int maxBufferedSize) {
+
+        if (encoder == null || !encoder.charset().equals(encoding)) {
+
+            // same error handling as OutputStreamWriter
+            this.encoder = encoding.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        } else {
+            encoder.reset();
+        }
+
+        this.out = out;
+        this.charsLen = 0;
+        this.bytes.clear();
+        this.maxBufferedSize = maxBufferedSize;
+        this.streaming = maxBufferedSize <= 0;
+        this.inputEnded = false;
+        this.bytesWritten = 0;
+        return this;
+    }
+
+    /**
+     * Detaches this writer from the underlying stream without flushing it.
+     */
+    void release() {
+        this.out = null;
+        this.charsLen = 0;
+
+        if (bytes.capacity() > MAX_RETAINED_BYTES && bytes.capacity() > chars.length * 2) {
+            this.bytes = ByteBuffer.allocate(chars.length * 2);
+        } else {
+            this.bytes.clear();
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if (charsLen == chars.length) {
+            encodeChars(false);
+        }
+
+        chars[charsLen++] = (char) c;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        while (len > 0) {
+
+            if (charsLen == chars.length) {
+                encodeChars(false);
+            }
+
+            int chunk = Math.min(len, chars.length - charsLen);
+            System.arraycopy(cbuf, off, chars, charsLen, chunk);
+            charsLen += chunk;
+            off += chunk;
+            len -= chunk;
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        while (len > 0) {
+
+            if (charsLen == chars.length) {
+                encodeChars(false);
+            }
+
+            int chunk = Math.min(len, chars.length - charsLen);
+            str.getChars(off, off + chunk, chars, charsLen);
+            charsLen += chunk;
+            off += chunk;
+            len -= chunk;
+        }
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        String s = String.valueOf(csq);
+        write(s, 0, s.length());
+        return this;
+    }
+
+    /**
+     * Encodes and writes out all the buffered characters, and flushes the underlying stream. If the writer is in the
+     * buffering mode, only encodes the characters, leaving the output in memory.
+     */
+    @Override
+    public void flush() throws IOException {
+        encodeChars(false);
+
+        if (streaming) {
+            writeBytes();
+            out.flush();
+        }
+    }
+
+    /**
+     * Encodes all the remaining characters, signaling that there will be no more input. After this call, if the
+     * output still fits in memory, {@link #getBufferedSize()} returns the full size of the encoded content.
+     */
+    void endInput() throws IOException {
+
+        if (inputEnded) {
+            return;
+        }
+
+        inputEnded = true;
+        encodeChars(true);
+
+        while (encoder.flush(bytes).isOverflow()) {
+            writeBytes();
+        }
+
+        if (!streaming && bytes.position() > maxBufferedSize) {
+            streaming = true;
+        }
+    }
+
+    /**
+     * Returns the size of the encoded output if the entire output was buffered in memory, or -1 if the writer had to
+     * start streaming. Only meaningful after {@link #endInput()}.
+     */
+    int getBufferedSize() {
+        return streaming ? -1 : bytes.position();
+    }
+
+    /**
+     * Returns the number of bytes written to the underlying stream so far.
+     */
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Returns a copy of the encoded output buffered in memory. Only meaningful after {@link #endInput()} and only if
+     * the writer didn't have to start streaming.
+     */
+    byte[] toByteArray() {
+        if (streaming) {
+            throw new IllegalStateException("Output was not fully buffered");
+        }
+
+        return Arrays.copyOf(bytes.array(), bytes.position());
+    }
+
+    /**
+     * Encodes and writes all the pending data and flushes the underlying stream. Unlike {@link #close()}, does not
+     * close the stream. After this call, the writer can not be used until it is {@link #reset(OutputStream, Charset)}.
+     */
+    void finish() throws IOException {
+        endInput();
+
+        streaming = true;
+        writeBytes();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    private void encodeChars(boolean endOfInput) throws IOException {
+
+        CharBuffer in = CharBuffer.wrap(chars, 0, charsLen);
+
+        while (true) {
+            CoderResult result = encoder.encode(in, bytes, endOfInput);
+            if (result.isOverflow()) {
+                writeBytes();
+            } else {
+                break;
+            }
+        }
+
+        // the tail of the buffer may contain an incomplete surrogate pair, keep it for the next round
+        int remaining = in.remaining();
+        if (remaining > 0) {
+            System.arraycopy(chars, in.position(), chars, 0, remaining);
+        }
+
+        charsLen = remaining;
+    }
+
+    private void writeBytes() throws IOException {
+
+        // in the buffering mode try to grow the buffer instead of writing
+        if (!streaming) {
+            if (bytes.capacity() < maxBufferedSize) {
+                growBytes();
+                return;
+            }
+
+            streaming = true;
+        }
+
+        if (bytes.position() > 0) {
+            out.write(bytes.array(), 0, bytes.position());
+            bytesWritten += bytes.position();
+            bytes.clear();
+        }
+    }
+
+    private void growBytes() {
+        int capacity = (int) Math.min((long) bytes.capacity() * 2, maxBufferedSize);
+        ByteBuffer newBytes = ByteBuffer.allocate(capacity);
+        bytes.flip();
+        newBytes.put(bytes);
+
+        // the grown buffer stays with the writer to be reused by the next request
+        this.bytes = newBytes;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.mvc;
+
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A pool of {@link EncodingWriter} objects, allowing to reuse writer buffers and encoders between requests. The number
+ * of idle writers is capped, so a burst of concurrent requests doesn't result in all of their buffers being retained.
+ *
+ * @since 4.0
+ */
+class EncodingWriterPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<EncodingWriter> idle;
+
+    EncodingWriterPool(int bufferSize, int maxIdle) {
+
+        if (bufferSize < EncodingWriter.MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException(
+                    "Buffer size must be at least " + EncodingWriter.MIN_BUFFER_SIZE + ": " + bufferSize);
+        }
+
+        this.bufferSize = bufferSize;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    EncodingWriter acquire(OutputStream out, Charset encoding, int maxBufferedSize) {
+        EncodingWriter writer = idle.poll();
+        return (writer != null ? writer : new EncodingWriter(bufferSize)).reset(out, encoding, maxBufferedSize);
+    }
+
+    void release(EncodingWriter writer) {
+        writer.release();
+
+        // if the pool is full, the writer is simply discarded
+        idle.offer(writer);
+    }
+}
@@ -23,24 +23,58 @@ import io.bootique.BootiqueException;
 import io.bootique.annotation.BQConfig;
 import io.bootique.annotation.BQConfigProperty;
 import io.bootique.mvc.renderer.RenderableTemplateCache;
+import io.bootique.mvc.renderer.TemplateCacheListener;
+import io.bootique.mvc.renderer.TemplateCacheRoute;
+import io.bootique.mvc.renderer.TemplateRenderer;
+import io.bootique.mvc.renderer.TemplateRenderers;
+import io.bootique.mvc.renderer.TtlCacheBuilder;
 import io.bootique.mvc.resolver.DefaultTemplateResolver;
+import io.bootique.mvc.resolver.TemplateResolver;
+import io.bootique.mvc.resolver.TemplateSourceStore;
+import io.bootique.mvc.warmup.TemplateWarmup;
+import io.bootique.mvc.warmup.TemplateWarmupFactory;
 import io.bootique.resource.FolderResourceFactory;
+import io.bootique.shutdown.ShutdownManager;
 import io.bootique.value.Duration;
 
 import java.io.Reader;
 import java.io.StringReader;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 
 @BQConfig("Configures MVC services")
 public class MvcFactory {
 
+    private static final int DEFAULT_VIEW_CACHE_MAX_SIZE = 1000;
+    private static final int DEFAULT_TEMPLATE_MAX_NAMESPACES = 1000;
+
     private FolderResourceFactory templateBase;
     private Charset templateEncoding;
     private Duration templateTtl;
+    private Integer templateCacheMaxSize;
+    private Boolean templateWatch;
+    private Boolean templateAsyncRefresh;
+    private Duration templateRefreshAhead;
+    private Duration templateErrorBackoff;
+    private List<TemplateCachePolicyFactory> templateCachePolicies;
+    private Integer templateNamespaceQuota;
+    private Integer templateMaxNamespaces;
+    private Boolean templateSourcesInMemory;
     private Boolean allowMissingTemplates;
+    private Integer writeBufferSize;
+    private Integer maxBufferedViewSize;
+    private Boolean etags;
+    private Integer viewCacheMaxSize;
+    private TemplateWarmupFactory warmup;
 
     public MvcFactory() {
         this.templateBase = new FolderResourceFactory("");
@@ -48,19 +82,235 @@ public class MvcFactory {
     }
 
     public RenderableTemplateCache createRenderableTemplateCache() {
-        return templateTtl != null
-                ? RenderableTemplateCache.of(templateTtl.getDuration())
-                : RenderableTemplateCache.ofNoCache();
+        return createRenderableTemplateCache(Set.of(), null);
+    }
+
+    /**
+     * @param shutdownManager if not null, used to stop the background refresh thread when the runtime shuts down
+     * @since 4.0
+     */
+    public RenderableTemplateCache createRenderableTemplateCache(
+            Set<TemplateCacheListener> listeners,
+            ShutdownManager shutdownManager) {
+
+        SharedCacheResources shared = new SharedCacheResources(shutdownManager);
+        RenderableTemplateCache defaultCache = createTemplateCache(
+                templateTtl,
+                templateCacheMaxSize,
+                templateWatch,
+                shared,
+                listeners);
+
+        if (templateCachePolicies == null || templateCachePolicies.isEmpty()) {
+            return defaultCache;
+        }
+
+        List<TemplateCacheRoute> routes = new ArrayList<>(templateCachePolicies.size());
+        for (TemplateCachePolicyFactory p : templateCachePolicies) {
+            RenderableTemplateCache cache = createTemplateCache(
+                    p.getTtl(),
+                    p.getMaxSize(),
+                    p.getWatch(),
+                    shared,
+                    listeners);
+
+            routes.add(p.createRoute(cache));
+        }
+
+        return RenderableTemplateCache.ofRoutes(routes, defaultCache, templateBase.getUrl());
+    }
+
+    private RenderableTemplateCache createTemplateCache(
+            Duration templateTtl,
+            Integer templateCacheMaxSize,
+            Boolean templateWatch,
+            SharedCacheResources shared,
+            Set<TemplateCacheListener> listeners) {
+
+        // listeners are attached to each cache individually, so that all the evictions are reported
+        RenderableTemplateCache cache = RenderableTemplateCache.withListeners(
+                createUnmonitoredTemplateCache(templateTtl, templateCacheMaxSize, templateWatch, shared),
+                listeners);
+
+        // quotas only make sense for the TTL caches, as the other caches either store nothing or store all templates
+        boolean watch = templateWatch != null && templateWatch;
+        if (templateNamespaceQuota == null || templateNamespaceQuota <= 0 || watch || templateTtl == null) {
+            return cache;
+        }
+
+        return RenderableTemplateCache.ofNamespaces(cache, maxNamespaces(), () -> RenderableTemplateCache.withListeners(
+                createUnmonitoredTemplateCache(templateTtl, templateNamespaceQuota, false, shared),
+                listeners));
+    }
+
+    private int maxNamespaces() {
+        return templateMaxNamespaces != null ? templateMaxNamespaces : DEFAULT_TEMPLATE_MAX_NAMESPACES;
+    }
+
+    private RenderableTemplateCache createUnmonitoredTemplateCache(
+            Duration templateTtl,
+            Integer templateCacheMaxSize,
+            Boolean templateWatch,
+            SharedCacheResources shared) {
+
+        if (templateWatch != null && templateWatch) {
+            return shared.watchingCache();
+        }
+
+        if (templateTtl == null) {
+            return templateErrorBackoff != null
+                    ? RenderableTemplateCache.ofNoCache(templateErrorBackoff.getDuration())
+                    : RenderableTemplateCache.ofNoCache();
+        }
+
+        TtlCacheBuilder builder = RenderableTemplateCache.builder(templateTtl.getDuration());
+
+        if (templateCacheMaxSize != null) {
+            builder.maxSize(templateCacheMaxSize);
+        }
+
+        boolean asyncRefresh = this.templateAsyncRefresh != null ? this.templateAsyncRefresh : false;
+        if (asyncRefresh || templateRefreshAhead != null) {
+            builder.asyncRefresh(shared.refreshExecutor());
+        }
+
+        if (templateRefreshAhead != null) {
+            builder.refreshAhead(templateRefreshAhead.getDuration());
+        }
+
+        if (templateErrorBackoff != null) {
+            builder.errorBackoff(templateErrorBackoff.getDuration());
+        }
+
+        return builder.build();
+    }
+
+    private ExecutorService createTemplateRefreshExecutor() {
+
+        // a single daemon thread is enough, as refreshes are rare and not time-critical
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "bootique-mvc-template-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private RenderableTemplateCache createWatchingCache() {
+        return templateErrorBackoff != null
+                ? RenderableTemplateCache.ofFileWatching(templateErrorBackoff.getDuration())
+                : RenderableTemplateCache.ofFileWatching();
+    }
+
+    /**
+     * Lazily created background resources shared by all the template caches, so that the default cache and the cache
+     * policies don't start a thread each.
+     */
+    private class SharedCacheResources {
+
+        private final ShutdownManager shutdownManager;
+        private ExecutorService refreshExecutor;
+        private RenderableTemplateCache watchingCache;
+
+        SharedCacheResources(ShutdownManager shutdownManager) {
+            this.shutdownManager = shutdownManager;
+        }
+
+        Executor refreshExecutor() {
+            if (refreshExecutor == null) {
+                refreshExecutor = createTemplateRefreshExecutor();
+                if (shutdownManager != null) {
+                    shutdownManager.onShutdown(refreshExecutor, ExecutorService::shutdownNow);
+                }
+            }
+
+            return refreshExecutor;
+        }
+
+        // closed together with the caches that use it
+        RenderableTemplateCache watchingCache() {
+            if (watchingCache == null) {
+                watchingCache = createWatchingCache();
+            }
+
+            return watchingCache;
+        }
+    }
+
+    /**
+     * @since 4.0
+     */
+    public MvcFeature createMvcFeature(AbstractViewWriter viewWriter) {
+        boolean etags = this.etags != null ? this.etags : false;
+        return new MvcFeature(viewWriter, etags);
+    }
+
+    /**
+     * @since 4.0
+     */
+    public AbstractViewWriter createViewWriter(
+            TemplateResolver templateResolver,
+            TemplateRenderers templateRenderers,
+            Set<MvcListener> listeners) {
+
+        int bufferSize = this.writeBufferSize != null ? this.writeBufferSize : AbstractViewWriter.DEFAULT_BUFFER_SIZE;
+        int maxBufferedViewSize = this.maxBufferedViewSize != null ? this.maxBufferedViewSize : 0;
+        int viewCacheMaxSize = this.viewCacheMaxSize != null ? this.viewCacheMaxSize : DEFAULT_VIEW_CACHE_MAX_SIZE;
+        ViewOutputCache outputCache = viewCacheMaxSize > 0 ? new ViewOutputCache(viewCacheMaxSize) : null;
+
+        return new AbstractViewWriter(
+                templateResolver,
+                templateRenderers,
+                bufferSize,
+                maxBufferedViewSize,
+                outputCache,
+                listeners);
+    }
+
+    /**
+     * @since 4.0
+     */
+    public TemplateWarmup createTemplateWarmup(Map<String, TemplateRenderer> renderersByExtension) {
+        return createTemplateWarmup(createResolver(), renderersByExtension);
+    }
+
+    /**
+     * @since 4.0
+     */
+    public TemplateWarmup createTemplateWarmup(
+            DefaultTemplateResolver resolver,
+            Map<String, TemplateRenderer> renderersByExtension) {
+        TemplateWarmupFactory warmup = this.warmup != null ? this.warmup : new TemplateWarmupFactory();
+        return warmup.createWarmup(templateBase, resolver, renderersByExtension);
+    }
+
+    /**
+     * Returns whether there are any templates to compile on startup.
+     */
+    boolean isWarmupEnabled() {
+        return warmup != null && warmup.isEnabled();
     }
 
     public DefaultTemplateResolver createResolver() {
+        return createResolver(Set.of());
+    }
+
+    /**
+     * @param templateExtensions extensions of the templates to load in memory if "templateSourcesInMemory" is enabled
+     * @since 4.0
+     */
+    public DefaultTemplateResolver createResolver(Set<String> templateExtensions) {
         boolean allowMissingTemplates = this.allowMissingTemplates != null ? this.allowMissingTemplates : false;
+        boolean sourcesInMemory = this.templateSourcesInMemory != null ? this.templateSourcesInMemory : false;
+        int namespaceQuota = this.templateNamespaceQuota != null ? this.templateNamespaceQuota : 0;
 
         return new DefaultTemplateResolver(
                 templateBase,
                 templateEncoding,
                 allowMissingTemplates ? onFailedUrl() : null,
-                allowMissingTemplates ? onFailedReader() : null);
+                allowMissingTemplates ? onFailedReader() : null,
+                sourcesInMemory ? TemplateSourceStore.load(templateBase, templateEncoding, templateExtensions) : null,
+                namespaceQuota,
+                maxNamespaces());
     }
 
     /**
@@ -101,6 +351,98 @@ public class MvcFactory {
         this.templateTtl = templateTtl;
     }
 
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("Sets the maximum number of compiled templates to keep in the cache. When the limit is reached, " +
+            "the least valuable templates are evicted based on their access recency and frequency. Only applies " +
+            "when 'templateTtl' is set. By default the cache is unbounded.")
+    public void setTemplateCacheMaxSize(Integer templateCacheMaxSize) {
+        this.templateCacheMaxSize = templateCacheMaxSize;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("If set to 'true', expired templates are recompiled on a background thread, while the request " +
+            "threads keep getting the stale version. Only applies when 'templateTtl' is set. The default is 'false'.")
+    public void setTemplateAsyncRefresh(Boolean templateAsyncRefresh) {
+        this.templateAsyncRefresh = templateAsyncRefresh;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("If set, templates accessed within this interval before their expiration are refreshed on a " +
+            "background thread ahead of time, so that the frequently used templates never expire. Implies " +
+            "'templateAsyncRefresh'. Only applies when 'templateTtl' is set.")
+    public void setTemplateRefreshAhead(Duration templateRefreshAhead) {
+        this.templateRefreshAhead = templateRefreshAhead;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("If set, limits the number of templates kept per namespace (usually a tenant) in both the " +
+            "template resolver and the TTL-based template caches, so that one large namespace can't evict the " +
+            "templates of the others. A namespace is the first path segment of the template name, unless provided " +
+            "by the view. Templates with no namespace are not subject to the quota.")
+    public void setTemplateNamespaceQuota(Integer templateNamespaceQuota) {
+        this.templateNamespaceQuota = templateNamespaceQuota;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("The maximum number of namespaces to keep templates for, when 'templateNamespaceQuota' is set. " +
+            "When exceeded, the templates of the least recently used namespace are evicted. The default is 1000.")
+    public void setTemplateMaxNamespaces(Integer templateMaxNamespaces) {
+        this.templateMaxNamespaces = templateMaxNamespaces;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("Cache settings for the subsets of templates matched by path and/or extension, overriding " +
+            "'templateTtl', 'templateCacheMaxSize' and 'templateWatch' for those templates. The first matching " +
+            "policy applies. The templates that match no policies use the top-level settings.")
+    public void setTemplateCachePolicies(List<TemplateCachePolicyFactory> templateCachePolicies) {
+        this.templateCachePolicies = templateCachePolicies;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("If set, template compilation failures are cached for this period, and the requests for a " +
+            "broken template fail fast instead of recompiling it every time. Applies to all template caching modes, " +
+            "including no caching. Templates that compiled successfully before keep serving the previous version if " +
+            "a refresh fails, regardless of this setting. By default, failed templates are recompiled on the next " +
+            "access.")
+    public void setTemplateErrorBackoff(Duration templateErrorBackoff) {
+        this.templateErrorBackoff = templateErrorBackoff;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("If set to 'true', compiled templates are cached until their files change on disk, instead of " +
+            "being reloaded periodically. Takes precedence over 'templateTtl'. Templates that are not stored as files " +
+            "(e.g. on classpath inside jars) are never reloaded in this mode.")
+    public void setTemplateWatch(Boolean templateWatch) {
+        this.templateWatch = templateWatch;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("If set to 'true', the sources of all templates with known extensions under the 'templateBase' " +
+            "are loaded in memory on startup, and templates are (re)compiled from memory instead of reading their " +
+            "resources. Intended for 'classpath:' template bases packaged in jars, whose contents don't change at " +
+            "runtime. Templates loaded this way are never reloaded. The default is 'false'.")
+    public void setTemplateSourcesInMemory(Boolean templateSourcesInMemory) {
+        this.templateSourcesInMemory = templateSourcesInMemory;
+    }
+
     /**
      * @since 3.0
      */
@@ -109,6 +451,53 @@ public class MvcFactory {
         this.allowMissingTemplates = allowMissingTemplates;
     }
 
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("Sets the size (in characters) of the buffer used to encode rendered views before writing them " +
+            "to the response. Buffers are pooled and reused between requests. The default is 8192, the minimum is 2.")
+    public void setWriteBufferSize(Integer writeBufferSize) {
+        this.writeBufferSize = writeBufferSize;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("Sets the max size in bytes of the rendered view output that is buffered in memory, so that " +
+            "the response is sent with a 'Content-Length' header instead of the chunked encoding. Views with a larger " +
+            "output are streamed. Individual views may override this setting. The default is 0, i.e. no buffering.")
+    public void setMaxBufferedViewSize(Integer maxBufferedViewSize) {
+        this.maxBufferedViewSize = maxBufferedViewSize;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("If set to 'true', views are rendered in memory to calculate an 'ETag' header from the " +
+            "response body, and requests with a matching 'If-None-Match' header get a '304 Not Modified' response " +
+            "with no body. The default is 'false'.")
+    public void setEtags(Boolean etags) {
+        this.etags = etags;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("Sets the maximum number of rendered outputs of views implementing 'CacheableView' to keep " +
+            "in memory. The default is 1000. Setting it to 0 disables view output caching.")
+    public void setViewCacheMaxSize(Integer viewCacheMaxSize) {
+        this.viewCacheMaxSize = viewCacheMaxSize;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("Configures templates to compile on startup, before the app starts serving requests. Only " +
+            "makes sense when template caching is enabled via 'templateTtl'.")
+    public void setWarmup(TemplateWarmupFactory warmup) {
+        this.warmup = warmup;
+    }
+
     private Function<String, URL> onFailedUrl() {
         URL emptyTemplate = MvcFactory.class.getResource("EmptyTemplate");
         if (emptyTemplate == null) {
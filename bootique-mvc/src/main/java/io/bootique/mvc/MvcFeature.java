@@ -26,17 +26,29 @@ import jakarta.ws.rs.core.FeatureContext;
 
 public class MvcFeature implements Feature {
 
-	private final TemplateResolver templateResolver;
-	private final TemplateRenderers templateRenderers;
+	private final AbstractViewWriter viewWriter;
+	private final boolean eTags;
 
 	public MvcFeature(TemplateResolver templateResolver, TemplateRenderers templateRenderers) {
-		this.templateResolver = templateResolver;
-		this.templateRenderers = templateRenderers;
+		this(new AbstractViewWriter(templateResolver, templateRenderers), false);
+	}
+
+	/**
+	 * @since 4.0
+	 */
+	public MvcFeature(AbstractViewWriter viewWriter, boolean eTags) {
+		this.viewWriter = viewWriter;
+		this.eTags = eTags;
 	}
 
 	@Override
 	public boolean configure(FeatureContext context) {
-		context.register(new AbstractViewWriter(templateResolver, templateRenderers));
+		context.register(viewWriter);
+
+		if (eTags) {
+			context.register(new ViewETagFilter(viewWriter));
+		}
+
 		return true;
 	}
 }
@@ -0,0 +1,55 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc;
+
+/**
+ * A listener of view rendering events, e.g. for collecting performance metrics. Listeners are invoked synchronously
+ * on the request thread, so they must be fast and thread-safe. All methods are no-op by default. Listeners are
+ * registered via {@link MvcModuleExtender#addListener(Class)}.
+ *
+ * @since 4.0
+ */
+public interface MvcListener {
+
+    /**
+     * Called after a template for a view was resolved.
+     */
+    default void onTemplateResolved(Template template, long elapsedNanos) {
+    }
+
+    /**
+     * Called after a template was rendered by its template engine. The elapsed time includes template compilation if
+     * it had to be done on the request thread.
+     */
+    default void onTemplateRendered(Template template, long elapsedNanos) {
+    }
+
+    /**
+     * Called after a view was fully written to the response. The elapsed time includes template resolution and
+     * rendering, as well as writing the output.
+     */
+    default void onViewWritten(AbstractView view, long elapsedNanos, long bytes) {
+    }
+
+    /**
+     * Called when a view failed to render.
+     */
+    default void onViewFailed(AbstractView view, Throwable error) {
+    }
+}
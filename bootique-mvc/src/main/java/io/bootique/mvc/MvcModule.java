@@ -25,18 +25,22 @@ import io.bootique.config.ConfigurationFactory;
 import io.bootique.di.Binder;
 import io.bootique.di.Provides;
 import io.bootique.jersey.JerseyModule;
+import io.bootique.jetty.JettyModule;
 import io.bootique.mvc.renderer.ByExtensionTemplateRenderers;
 import io.bootique.mvc.renderer.RenderableTemplateCache;
+import io.bootique.mvc.renderer.TemplateCacheListener;
 import io.bootique.mvc.renderer.TemplateRenderer;
 import io.bootique.mvc.renderer.TemplateRenderers;
 import io.bootique.mvc.resolver.TemplateResolver;
+import io.bootique.shutdown.ShutdownManager;
 
 import jakarta.inject.Singleton;
 import java.util.Map;
+import java.util.Set;
 
 public class MvcModule implements BQModule {
 
-    private static final String CONFIG_PREFIX = "mvc";
+    static final String CONFIG_PREFIX = "mvc";
 
     /**
      * Returns an instance of {@link MvcModuleExtender} used by downstream modules to load custom extensions to the
@@ -61,12 +65,27 @@ public class MvcModule implements BQModule {
     public void configure(Binder binder) {
         JerseyModule.extend(binder).addFeature(MvcFeature.class);
         MvcModule.extend(binder).initAllExtensions();
+
+        // compile the configured templates when the server starts, before it starts serving requests
+        JettyModule.extend(binder).addListener(TemplateWarmupListener.class);
+    }
+
+    @Singleton
+    @Provides
+    MvcFeature createMvcFeature(ConfigurationFactory configFactory, AbstractViewWriter viewWriter) {
+        return configFactory.config(MvcFactory.class, CONFIG_PREFIX).createMvcFeature(viewWriter);
     }
 
     @Singleton
     @Provides
-    MvcFeature createMvcFeature(TemplateResolver templateResolver, TemplateRenderers templateRenderers) {
-        return new MvcFeature(templateResolver, templateRenderers);
+    AbstractViewWriter createViewWriter(
+            ConfigurationFactory configFactory,
+            TemplateResolver templateResolver,
+            TemplateRenderers templateRenderers,
+            Set<MvcListener> listeners) {
+        return configFactory
+                .config(MvcFactory.class, CONFIG_PREFIX)
+                .createViewWriter(templateResolver, templateRenderers, listeners);
     }
 
     @Singleton
@@ -77,13 +96,21 @@ public class MvcModule implements BQModule {
 
     @Singleton
     @Provides
-    TemplateResolver createTemplateResolver(ConfigurationFactory configFactory) {
-        return configFactory.config(MvcFactory.class, CONFIG_PREFIX).createResolver();
+    TemplateResolver createTemplateResolver(
+            ConfigurationFactory configFactory,
+            Map<String, TemplateRenderer> renderersByExtension) {
+        return configFactory.config(MvcFactory.class, CONFIG_PREFIX).createResolver(renderersByExtension.keySet());
     }
 
     @Singleton
     @Provides
-    RenderableTemplateCache createRenderableTemplateCache(ConfigurationFactory configFactory) {
-        return configFactory.config(MvcFactory.class, CONFIG_PREFIX).createRenderableTemplateCache();
+    RenderableTemplateCache createRenderableTemplateCache(
+            ConfigurationFactory configFactory,
+            Set<TemplateCacheListener> listeners,
+            ShutdownManager shutdownManager) {
+
+        // stops the background threads of the caches, such as the file watcher
+        return shutdownManager.onShutdown(
+                configFactory.config(MvcFactory.class, CONFIG_PREFIX).createRenderableTemplateCache(listeners, shutdownManager));
     }
 }
@@ -22,11 +22,15 @@ package io.bootique.mvc;
 import io.bootique.ModuleExtender;
 import io.bootique.di.Binder;
 import io.bootique.di.MapBuilder;
+import io.bootique.di.SetBuilder;
+import io.bootique.mvc.renderer.TemplateCacheListener;
 import io.bootique.mvc.renderer.TemplateRenderer;
 
 public class MvcModuleExtender extends ModuleExtender<MvcModuleExtender> {
 
     private MapBuilder<String, TemplateRenderer> templateRenderers;
+    private SetBuilder<MvcListener> listeners;
+    private SetBuilder<TemplateCacheListener> cacheListeners;
 
     MvcModuleExtender(Binder binder) {
         super(binder);
@@ -35,6 +39,8 @@ public class MvcModuleExtender extends ModuleExtender<MvcModuleExtender> {
     @Override
     public MvcModuleExtender initAllExtensions() {
         contributeRenderers();
+        contributeListeners();
+        contributeCacheListeners();
         return this;
     }
 
@@ -48,6 +54,38 @@ public class MvcModuleExtender extends ModuleExtender<MvcModuleExtender> {
         return this;
     }
 
+    /**
+     * @since 4.0
+     */
+    public MvcModuleExtender addListener(MvcListener listener) {
+        contributeListeners().addInstance(listener);
+        return this;
+    }
+
+    /**
+     * @since 4.0
+     */
+    public MvcModuleExtender addListener(Class<? extends MvcListener> listenerType) {
+        contributeListeners().add(listenerType);
+        return this;
+    }
+
+    /**
+     * @since 4.0
+     */
+    public MvcModuleExtender addCacheListener(TemplateCacheListener listener) {
+        contributeCacheListeners().addInstance(listener);
+        return this;
+    }
+
+    /**
+     * @since 4.0
+     */
+    public MvcModuleExtender addCacheListener(Class<? extends TemplateCacheListener> listenerType) {
+        contributeCacheListeners().add(listenerType);
+        return this;
+    }
+
     protected MapBuilder<String, TemplateRenderer> contributeRenderers() {
         if (templateRenderers == null) {
             templateRenderers = newMap(String.class, TemplateRenderer.class);
@@ -55,4 +93,18 @@ public class MvcModuleExtender extends ModuleExtender<MvcModuleExtender> {
         return templateRenderers;
     }
 
+    protected SetBuilder<MvcListener> contributeListeners() {
+        if (listeners == null) {
+            listeners = newSet(MvcListener.class);
+        }
+        return listeners;
+    }
+
+    protected SetBuilder<TemplateCacheListener> contributeCacheListeners() {
+        if (cacheListeners == null) {
+            cacheListeners = newSet(TemplateCacheListener.class);
+        }
+        return cacheListeners;
+    }
+
 }
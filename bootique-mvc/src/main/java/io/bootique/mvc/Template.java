@@ -19,6 +19,11 @@
 
 package io.bootique.mvc;
 
+import io.bootique.mvc.renderer.RenderableTemplateCache;
+import io.bootique.mvc.renderer.TemplateCacheRouter;
+import io.bootique.mvc.renderer.TemplateRenderer;
+import io.bootique.mvc.renderer.TemplateRenderers;
+
 import java.io.Reader;
 import java.net.URL;
 import java.nio.charset.Charset;
@@ -58,4 +63,70 @@ public interface Template {
     Reader reader(String resourceName);
 
     Charset getEncoding();
+
+    /**
+     * Returns a String uniquely identifying the template source, that is used as a key by the template caches. The
+     * default implementation returns the external form of the template URL, creating a new String on every call, so
+     * implementations are encouraged to precalculate it.
+     *
+     * @since 4.0
+     */
+    default String getCacheKey() {
+        return getUrl().toExternalForm();
+    }
+
+    /**
+     * Returns a renderer for this template selected by the provided renderers. The default implementation delegates
+     * to {@link TemplateRenderers#getRenderer(Template)} on every call. Implementations cached by the template
+     * resolver are encouraged to remember the result, so that steady-state rendering doesn't require any lookups.
+     *
+     * @since 4.0
+     */
+    default TemplateRenderer getRenderer(TemplateRenderers renderers) {
+        return renderers.getRenderer(this);
+    }
+
+    /**
+     * Returns a cache for this template selected by the provided router. The default implementation delegates to
+     * {@link TemplateCacheRouter#route(Template)} on every call. Implementations cached by the template resolver are
+     * encouraged to remember the result, same as with {@link #getRenderer(TemplateRenderers)}.
+     *
+     * @since 4.0
+     */
+    default RenderableTemplateCache getCache(TemplateCacheRouter router) {
+        return router.route(this);
+    }
+
+    /**
+     * Returns a token that changes whenever the template source changes (e.g. a file modification time or a content
+     * checksum). Caches use it to skip recompilation of unchanged templates. The token must be cheap to obtain
+     * compared to reading the template, and must properly implement "equals". Returns null if the version can't be
+     * determined, in which case the template is treated as changed. The default implementation returns null.
+     *
+     * @since 4.0
+     */
+    default Object getVersion() {
+        return null;
+    }
+
+    /**
+     * Returns a version token of a related resource (usually, a child template). Follows the same rules as
+     * {@link #getVersion()}. The default implementation returns null.
+     *
+     * @since 4.0
+     */
+    default Object getVersion(String resourceName) {
+        return null;
+    }
+
+    /**
+     * Returns a namespace (e.g. a tenant key) this template belongs to. Caches may use it to enforce per-namespace
+     * size quotas, so that templates of one namespace can not evict templates of the other namespaces. The default
+     * implementation returns null, meaning that the template is not a part of any namespace.
+     *
+     * @since 4.0
+     */
+    default String getNamespace() {
+        return null;
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc;
+
+import io.bootique.BootiqueException;
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.mvc.renderer.RenderableTemplateCache;
+import io.bootique.mvc.renderer.TemplateCacheRoute;
+import io.bootique.value.Duration;
+
+/**
+ * Cache settings for a subset of templates matched by path and/or extension. The settings that are not defined
+ * here ("templateErrorBackoff", "templateAsyncRefresh", "templateRefreshAhead") are taken from {@link MvcFactory}.
+ *
+ * @since 4.0
+ */
+@BQConfig("Template cache settings for templates matching a path pattern and/or an extension")
+public class TemplateCachePolicyFactory {
+
+    private String path;
+    private String extension;
+    private Duration ttl;
+    private Integer maxSize;
+    private Boolean watch;
+
+    TemplateCacheRoute createRoute(RenderableTemplateCache cache) {
+
+        if (path == null && extension == null) {
+            throw new BootiqueException(1, "Template cache policy must define a 'path' or an 'extension' (or both)");
+        }
+
+        return new TemplateCacheRoute(path, extension, cache);
+    }
+
+    Duration getTtl() {
+        return ttl;
+    }
+
+    Integer getMaxSize() {
+        return maxSize;
+    }
+
+    Boolean getWatch() {
+        return watch;
+    }
+
+    @BQConfigProperty("A glob pattern matched against template paths relative to the 'templateBase'. '*' matches " +
+            "any chars within a folder, '**' - any number of folders, e.g. 'com/example/layouts/**'.")
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    @BQConfigProperty("Template extension, e.g. '.mustache'. If both 'path' and 'extension' are set, templates must " +
+            "match both.")
+    public void setExtension(String extension) {
+        this.extension = extension;
+    }
+
+    @BQConfigProperty("Template reload time interval for the matching templates. If neither 'ttl' nor 'watch' are " +
+            "set, the matching templates are not cached.")
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    @BQConfigProperty("Maximum number of compiled templates to keep in the cache of the matching templates. Only " +
+            "applies when 'ttl' is set. By default the cache is unbounded.")
+    public void setMaxSize(Integer maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @BQConfigProperty("If set to 'true', the matching templates are cached until their files change on disk. " +
+            "Takes precedence over 'ttl'.")
+    public void setWatch(Boolean watch) {
+        this.watch = watch;
+    }
+}
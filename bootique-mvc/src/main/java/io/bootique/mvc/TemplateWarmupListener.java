@@ -0,0 +1,71 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc;
+
+import io.bootique.config.ConfigurationFactory;
+import io.bootique.mvc.renderer.TemplateRenderer;
+import io.bootique.mvc.resolver.DefaultTemplateResolver;
+import io.bootique.mvc.resolver.TemplateResolver;
+import io.bootique.mvc.warmup.TemplateWarmup;
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+
+import java.util.Map;
+
+/**
+ * Runs the template warmup when the Jetty server starts, before it starts accepting requests. So the commands that
+ * don't start the server don't pay the warmup cost. The renderers and the resolver are only created if the warmup is
+ * configured.
+ *
+ * @since 4.0
+ */
+class TemplateWarmupListener implements ServletContextListener {
+
+    private final ConfigurationFactory configFactory;
+    private final Provider<Map<String, TemplateRenderer>> renderersByExtension;
+    private final Provider<TemplateResolver> templateResolver;
+
+    @Inject
+    public TemplateWarmupListener(
+            ConfigurationFactory configFactory,
+            Provider<Map<String, TemplateRenderer>> renderersByExtension,
+            Provider<TemplateResolver> templateResolver) {
+        this.configFactory = configFactory;
+        this.renderersByExtension = renderersByExtension;
+        this.templateResolver = templateResolver;
+    }
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        MvcFactory factory = configFactory.config(MvcFactory.class, MvcModule.CONFIG_PREFIX);
+        if (!factory.isWarmupEnabled()) {
+            return;
+        }
+
+        // reuse the app resolver if possible, so that the warmed up templates share its source store
+        TemplateResolver resolver = templateResolver.get();
+        TemplateWarmup warmup = resolver instanceof DefaultTemplateResolver
+                ? factory.createTemplateWarmup((DefaultTemplateResolver) resolver, renderersByExtension.get())
+                : factory.createTemplateWarmup(renderersByExtension.get());
+
+        warmup.warmUp();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.mvc;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * A response filter that renders {@link AbstractView} responses in memory to calculate a strong "ETag" from the
+ * rendered bytes. If the client sent a matching "If-None-Match" header, the response body is replaced with
+ * "304 Not Modified" status. Otherwise the rendered bytes become the response entity, so the view is not rendered twice.
+ *
+ * @since 4.0
+ */
+public class ViewETagFilter implements ContainerResponseFilter {
+
+    // creating a digest involves a provider lookup, so reusing one per thread
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(ViewETagFilter::createDigest);
+
+    private final AbstractViewWriter viewWriter;
+
+    public ViewETagFilter(AbstractViewWriter viewWriter) {
+        this.viewWriter = viewWriter;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
+
+        if (!(response.getEntity() instanceof AbstractView)
+                || response.getStatus() != Response.Status.OK.getStatusCode()
+                || !isCacheableMethod(request.getMethod())) {
+            return;
+        }
+
+        byte[] bytes = viewWriter.renderToBytes((AbstractView) response.getEntity());
+        String eTag = eTag(bytes);
+
+        response.getHeaders().putSingle(HttpHeaders.ETAG, eTag);
+
+        if (matches(request.getHeaderString(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setStatus(Response.Status.NOT_MODIFIED.getStatusCode());
+            response.setEntity(null);
+            return;
+        }
+
+        response.setEntity(bytes, response.getEntityAnnotations(), response.getMediaType());
+        response.getHeaders().putSingle(HttpHeaders.CONTENT_LENGTH, bytes.length);
+    }
+
+    protected String eTag(byte[] bytes) {
+
+        MessageDigest digest = DIGEST.get();
+
+        // a digest is reset after each "digest(..)" call, but the previous call may have been interrupted by an error
+        digest.reset();
+        return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest(bytes)) + '"';
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            // not a security feature, MD5 is a fast digest with a negligible chance of collisions for our purposes
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("MD5 digest is not available", e);
+        }
+    }
+
+    static boolean matches(String ifNoneMatch, String eTag) {
+
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        // per RFC 7232, "If-None-Match" uses the weak comparison, so ignoring the "W/" prefix of the client tags
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*")
+                    || trimmed.equals(eTag)
+                    || (trimmed.startsWith("W/") && trimmed.substring(2).equals(eTag))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isCacheableMethod(String method) {
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.mvc;
+
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded in-memory cache of rendered {@link CacheableView} output. Stores encoded bytes, so that a cache hit can be
+ * written to the response directly, bypassing template resolution and rendering. When full, evicts the least recently
+ * used entries.
+ *
+ * @since 4.0
+ */
+public class ViewOutputCache {
+
+    private final int maxSize;
+    private final ConcurrentMap<Key, Entry> cache;
+
+    // access-ordered LRU list of the cache keys, guarded by "lruLock"
+    private final Lock lruLock;
+    private final LinkedHashMap<Key, Entry> lru;
+
+    public ViewOutputCache(int maxSize) {
+
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache max size must be positive: " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        this.cache = new ConcurrentHashMap<>();
+        this.lruLock = new ReentrantLock();
+        this.lru = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns cached bytes for the view, or null if the view output is not in the cache or has expired.
+     */
+    public byte[] get(AbstractView view, Object cacheKey) {
+
+        Key key = new Key(view, cacheKey);
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresOn < System.currentTimeMillis()) {
+            remove(key, entry);
+            return null;
+        }
+
+        // skip recording the access if the lock is busy. This makes LRU order slightly imprecise under load
+        if (lruLock.tryLock()) {
+            try {
+                lru.get(key);
+            } finally {
+                lruLock.unlock();
+            }
+        }
+
+        return entry.bytes;
+    }
+
+    public void put(AbstractView view, Object cacheKey, byte[] bytes, long ttlMs) {
+
+        Key key = new Key(view, cacheKey);
+        Entry entry = new Entry(bytes, System.currentTimeMillis() + ttlMs);
+
+        lruLock.lock();
+        try {
+            cache.put(key, entry);
+            lru.put(key, entry);
+
+            while (lru.size() > maxSize) {
+                Iterator<Map.Entry<Key, Entry>> it = lru.entrySet().iterator();
+                Map.Entry<Key, Entry> eldest = it.next();
+                it.remove();
+                cache.remove(eldest.getKey(), eldest.getValue());
+            }
+        } finally {
+            lruLock.unlock();
+        }
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    private void remove(Key key, Entry entry) {
+        lruLock.lock();
+        try {
+            if (cache.remove(key, entry)) {
+                lru.remove(key);
+            }
+        } finally {
+            lruLock.unlock();
+        }
+    }
+
+    static final class Entry {
+        final byte[] bytes;
+        final long expiresOn;
+
+        Entry(byte[] bytes, long expiresOn) {
+            this.bytes = bytes;
+            this.expiresOn = expiresOn;
+        }
+    }
+
+    static final class Key {
+
+        // the same key may be returned by unrelated views, so including view class and template into the cache key
+        private final Class<?> viewType;
+        private final String templateName;
+        private final Charset encoding;
+        private final Object cacheKey;
+        private final int hashCode;
+
+        Key(AbstractView view, Object cacheKey) {
+            this.viewType = view.getClass();
+            this.templateName = view.getTemplateName();
+            this.encoding = view.getEncoding();
+            this.cacheKey = cacheKey;
+            this.hashCode = Objects.hash(viewType, templateName, encoding, cacheKey);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return viewType == key.viewType
+                    && Objects.equals(templateName, key.templateName)
+                    && Objects.equals(encoding, key.encoding)
+                    && cacheKey.equals(key.cacheKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A TTL cache with an upper limit on the number of stored templates. Eviction follows a simplified "W-TinyLFU"
+ * policy: new entries are placed in a small LRU "admission window", and when they leave the window, compete with the
+ * least recently used entry of the "main" LRU region based on their estimated access frequency. This way a burst of
+ * one-off templates can't flush the templates that are used all the time.
+ *
+ * <p>Lookups are served from a {@link ConcurrentMap} without locking. Eviction policy bookkeeping is done under a lock,
+ * but reads only record an access if the lock is immediately available, so under high contention some accesses are
+ * not counted, which only makes the policy slightly less precise.</p>
+ *
+ * @since 4.0
+ */
+class BoundedTtlCache implements RenderableTemplateCache {
+
+    private final CachePolicy policy;
+    private final int windowMaxSize;
+    private final int mainMaxSize;
+
+    private final ConcurrentMap<String, CacheEntry> cache;
+    private final TemplateDependencies dependencies;
+
+    // policy structures, guarded by "policyLock"
+    private final Lock policyLock;
+    private final LinkedHashMap<String, CacheEntry> window;
+    private final LinkedHashMap<String, CacheEntry> main;
+    private final FrequencySketch sketch;
+
+    private volatile Consumer<String> evictionListener;
+
+    public BoundedTtlCache(long ttlMs, int maxSize) {
+        this(ttlMs, maxSize, null, 0);
+    }
+
+    BoundedTtlCache(long ttlMs, int maxSize, AsyncRefresh asyncRefresh, long errorBackoffMs) {
+        this(ttlMs, maxSize, asyncRefresh, errorBackoffMs, System::nanoTime);
+    }
+
+    BoundedTtlCache(long ttlMs, int maxSize, AsyncRefresh asyncRefresh, long errorBackoffMs, LongSupplier clock) {
+
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache max size must be positive: " + maxSize);
+        }
+
+        this.policy = new CachePolicy(ttlMs, errorBackoffMs, asyncRefresh, clock);
+
+        // ~1% of the cache is the admission window
+        this.windowMaxSize = Math.max(1, maxSize / 100);
+        this.mainMaxSize = maxSize - windowMaxSize;
+
+        this.cache = new ConcurrentHashMap<>();
+        this.dependencies = new TemplateDependencies(ttlMs, this::invalidateEntry);
+        this.policyLock = new ReentrantLock();
+        this.window = new LinkedHashMap<>(16, 0.75f, true);
+        this.main = new LinkedHashMap<>(16, 0.75f, true);
+        this.sketch = new FrequencySketch(maxSize);
+        this.evictionListener = k -> {
+        };
+    }
+
+    @Override
+    public <T> T get(Template template, Function<Template, T> renderedTemplateMaker) {
+
+        String key = template.getCacheKey();
+
+        CacheEntry entry = cache.get(key);
+        if (entry != null) {
+            onHit(key);
+        } else {
+            CacheEntry newEntry = new CacheEntry(policy, dependencies, key);
+            CacheEntry existing = cache.putIfAbsent(key, newEntry);
+            if (existing != null) {
+                entry = existing;
+                onHit(key);
+            } else {
+                entry = newEntry;
+                onMiss(key, newEntry);
+            }
+        }
+
+        return entry.updateIfNeeded(template, renderedTemplateMaker);
+    }
+
+    @Override
+    public void invalidate(URL templateUrl) {
+        String key = templateUrl.toExternalForm();
+        invalidateEntry(key);
+        dependencies.invalidate(key);
+    }
+
+    void setEvictionListener(Consumer<String> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    private void invalidateEntry(String key) {
+        CacheEntry entry = cache.get(key);
+        if (entry != null) {
+            entry.invalidate();
+        }
+    }
+
+    private void onHit(String key) {
+
+        // skip recording the access if the lock is busy
+        if (!policyLock.tryLock()) {
+            return;
+        }
+
+        try {
+            sketch.increment(key);
+
+            // "get" on access-ordered maps moves the entry to the tail
+            if (window.get(key) == null) {
+                main.get(key);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void onMiss(String key, CacheEntry entry) {
+
+        policyLock.lock();
+        try {
+            sketch.increment(key);
+            window.put(key, entry);
+
+            while (window.size() > windowMaxSize) {
+                Map.Entry<String, CacheEntry> candidate = removeEldest(window);
+                admitToMain(candidate.getKey(), candidate.getValue());
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void admitToMain(String candidateKey, CacheEntry candidate) {
+
+        if (main.size() < mainMaxSize) {
+            main.put(candidateKey, candidate);
+            return;
+        }
+
+        Map.Entry<String, CacheEntry> victim = main.isEmpty() ? null : main.entrySet().iterator().next();
+
+        // the candidate wins only if it is accessed more frequently than the victim
+        if (victim != null && sketch.frequency(candidateKey) > sketch.frequency(victim.getKey())) {
+            main.remove(victim.getKey());
+            cache.remove(victim.getKey(), victim.getValue());
+            main.put(candidateKey, candidate);
+            onEvicted(victim.getKey());
+        } else {
+            cache.remove(candidateKey, candidate);
+            onEvicted(candidateKey);
+        }
+    }
+
+    private void onEvicted(String key) {
+        dependencies.remove(key);
+        evictionListener.accept(key);
+    }
+
+    private static Map.Entry<String, CacheEntry> removeEldest(LinkedHashMap<String, CacheEntry> map) {
+        Iterator<Map.Entry<String, CacheEntry>> it = map.entrySet().iterator();
+        Map.Entry<String, CacheEntry> eldest = it.next();
+        it.remove();
+        return eldest;
+    }
+}
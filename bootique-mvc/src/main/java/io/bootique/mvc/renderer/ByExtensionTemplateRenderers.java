@@ -27,14 +27,46 @@ public class ByExtensionTemplateRenderers implements TemplateRenderers {
 
 	private final Map<String, TemplateRenderer> renderersByExtension;
 
+	// parallel arrays matched against the end of the template name without extracting the extension substring
+	private final String[] extensions;
+	private final TemplateRenderer[] renderers;
+
 	public ByExtensionTemplateRenderers(Map<String, TemplateRenderer> renderersByExtension) {
 		// expecting each extension in the map to start with "."
 		this.renderersByExtension = renderersByExtension;
+
+		int size = renderersByExtension.size();
+		this.extensions = new String[size];
+		this.renderers = new TemplateRenderer[size];
+
+		int i = 0;
+		for (Map.Entry<String, TemplateRenderer> e : renderersByExtension.entrySet()) {
+			extensions[i] = e.getKey();
+			renderers[i] = e.getValue();
+			i++;
+		}
 	}
 
 	@Override
 	public TemplateRenderer getRenderer(Template template) {
-		String ext = getExtension(template.getName());
+		String name = template.getName();
+
+		int dot = name.lastIndexOf('.');
+		if (dot > 0 && dot < name.length() - 1) {
+			int len = name.length() - dot;
+			for (int i = 0; i < extensions.length; i++) {
+				String ext = extensions[i];
+				if (ext.length() == len && name.regionMatches(dot, ext, 0, len)) {
+					return renderers[i];
+				}
+			}
+		}
+
+		return findRenderer(name);
+	}
+
+	private TemplateRenderer findRenderer(String templateName) {
+		String ext = getExtension(templateName);
 		TemplateRenderer renderer = renderersByExtension.get(ext);
 		if (renderer == null) {
 			throw new IllegalArgumentException("Unsupported template extension: "
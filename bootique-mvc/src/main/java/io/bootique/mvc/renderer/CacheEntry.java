@@ -0,0 +1,425 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * A single cache slot holding a renderable template with "stale-while-revalidate" refresh semantics. The first
+ * callers have to wait for the template to be compiled, but once there's a value, it is returned to all the callers
+ * except the one that won the race to refresh an expired entry. Expired entries are only recompiled if the template
+ * {@link Template#getVersion() version} has changed. Optionally, refresh can be done in the background, so that all
+ * callers get the stale value, and even started before the entry expires.
+ *
+ * <p>If a refresh fails, the last good value is served until the next refresh attempt, which happens after another
+ * TTL (or the "error back-off" period, if it is longer). If the first compilation fails, the failure can be cached for
+ * an "error back-off" period, rethrown to every caller in the meantime, so that a broken template is not recompiled
+ * on every request.</p>
+ *
+ * <p>The entry is lock-free. Its whole state is an immutable {@link State} object replaced atomically. At most one
+ * compilation per entry is in flight at any given time, and the callers that need a value before there is one wait
+ * for the in-flight compilation instead of starting their own.</p>
+ *
+ * @since 4.0
+ */
+class CacheEntry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheEntry.class);
+
+    private static final AtomicReferenceFieldUpdater<CacheEntry, State> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(CacheEntry.class, State.class, "state");
+
+    private final CachePolicy policy;
+
+    // optional, tracking child templates accessed during compilation
+    private final TemplateDependencies dependencies;
+    private final String key;
+
+    private volatile State state;
+
+    CacheEntry(CachePolicy policy, TemplateDependencies dependencies, String key) {
+        this.policy = policy;
+        this.dependencies = dependencies;
+        this.key = key;
+
+        // create as expired
+        this.state = State.EMPTY;
+    }
+
+    /**
+     * Marks the entry as expired, so that the next call would recompile it, even if its version hasn't changed. A
+     * compilation in progress will not make the entry fresh.
+     */
+    void invalidate() {
+        State s;
+        do {
+            s = state;
+        } while (!STATE.compareAndSet(this, s, s.invalidate()));
+    }
+
+    <T> T updateIfNeeded(Template t, Function<Template, T> tMaker) {
+
+        State s = state;
+
+        // the entries that never expire can skip reading the clock
+        long now = s.hasTimedExpiration() ? policy.clock.getAsLong() : 0;
+        boolean fresh = s.isFresh(now);
+
+        if (s.value != null) {
+
+            if (fresh) {
+
+                // refresh-ahead
+                if (policy.refreshAheadNanos > 0
+                        && s.inFlight == null
+                        && s.hasTimedExpiration()
+                        && s.isDue(now, policy.refreshAheadNanos)) {
+                    refreshAsync(s, t, tMaker);
+                }
+
+                return (T) s.value;
+            }
+
+            // we must wait on the first update, but after that we can reuse a stale template
+            if (s.inFlight == null) {
+                if (policy.asyncRefresh != null) {
+                    refreshAsync(s, t, tMaker);
+                } else {
+                    InFlight inFlight = new InFlight(Thread.currentThread());
+                    if (STATE.compareAndSet(this, s, s.startCompile(inFlight))) {
+                        return (T) compile(s, inFlight, t, tMaker);
+                    }
+                }
+            }
+
+            return (T) s.value;
+        }
+
+        if (fresh && s.failure != null) {
+            throw cachedFailure(t, s.failure);
+        }
+
+        return (T) compileOrWait(t, tMaker);
+    }
+
+    private Object compileOrWait(Template t, Function<Template, ?> tMaker) {
+
+        while (true) {
+
+            State s = state;
+
+            // someone else finished compiling
+            if (s.value != null) {
+                return s.value;
+            }
+
+            if (s.inFlight != null) {
+
+                // a recursive request for the same template from within its own compilation. Waiting would deadlock
+                if (s.inFlight.owner == Thread.currentThread()) {
+                    return tMaker.apply(t);
+                }
+
+                return join(s.inFlight);
+            }
+
+            if (s.failure != null && s.isFresh(policy.clock.getAsLong())) {
+                throw cachedFailure(t, s.failure);
+            }
+
+            InFlight inFlight = new InFlight(Thread.currentThread());
+            if (STATE.compareAndSet(this, s, s.startCompile(inFlight))) {
+                return compile(s, inFlight, t, tMaker);
+            }
+        }
+    }
+
+    private void refreshAsync(State s, Template t, Function<Template, ?> tMaker) {
+
+        // only one refresh per entry can be in flight
+        InFlight inFlight = new InFlight(null);
+        if (!STATE.compareAndSet(this, s, s.startCompile(inFlight))) {
+            return;
+        }
+
+        // the maker may depend on the state of the current thread
+        Function<Template, ?> backgroundMaker = ListeningTemplateCache.detach(tMaker);
+
+        try {
+            policy.asyncRefresh.executor.execute(() -> {
+                try {
+                    compile(s, inFlight, t, backgroundMaker);
+                } catch (Throwable e) {
+                    // keep serving the stale template. The refresh will be retried on the next access
+                    LOGGER.warn("Error refreshing template {}", t.getUrl(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            abandon(inFlight, s.value);
+        }
+    }
+
+    /**
+     * Compiles the template (unless its version hasn't changed), and publishes the result, completing the in-flight
+     * future. Must only be called by the thread that successfully installed the "inFlight" marker.
+     */
+    private Object compile(State started, InFlight inFlight, Template t, Function<Template, ?> tMaker) {
+
+        Object value;
+        Object version;
+
+        try {
+            // taking the version before compiling, so that a change made during compilation is not missed
+            version = currentVersion(t);
+
+            // skip compilation if the template sources haven't changed since the last time (unless explicitly
+            // invalidated), only extending the expiration
+            if (started.value == null
+                    || started.forceCompile
+                    || version == null
+                    || !version.equals(started.version)) {
+
+                Template compiled = dependencies != null ? dependencies.track(key, t) : t;
+                value = Objects.requireNonNull(tMaker.apply(compiled));
+            } else {
+                value = started.value;
+            }
+        } catch (RuntimeException e) {
+            return onCompileFailed(started, inFlight, t, e);
+        } catch (Throwable e) {
+
+            // Errors (and undeclared checked exceptions) are not cached, but the waiters must still be released, and
+            // the entry must be left available for the next compilation attempt
+            abandonExceptionally(inFlight, e);
+            throw e;
+        }
+
+        long now = policy.clock.getAsLong();
+        State s;
+        do {
+            s = state;
+        } while (!STATE.compareAndSet(this, s, s.compiled(started, value, version, now, policy)));
+
+        inFlight.complete(value);
+        return value;
+    }
+
+    private Object onCompileFailed(State started, InFlight inFlight, Template t, RuntimeException e) {
+
+        long now = policy.clock.getAsLong();
+
+        // stale-on-error: keep serving the last good value
+        if (started.value != null) {
+            LOGGER.warn("Error recompiling template {}, keeping the previous version", t.getUrl(), e);
+
+            State s;
+            do {
+                s = state;
+            } while (!STATE.compareAndSet(this, s, s.failedStale(started, now, policy)));
+
+            inFlight.complete(started.value);
+            return started.value;
+        }
+
+        // without the back-off the failure is not cached, and the next caller will try to compile it again
+        State s;
+        do {
+            s = state;
+        } while (!STATE.compareAndSet(this, s, s.failed(started, e, now, policy)));
+
+        inFlight.completeExceptionally(e);
+        throw e;
+    }
+
+    private void abandon(InFlight inFlight, Object value) {
+        endCompile(inFlight);
+        inFlight.complete(value);
+    }
+
+    private void abandonExceptionally(InFlight inFlight, Throwable failure) {
+        endCompile(inFlight);
+        inFlight.completeExceptionally(failure);
+    }
+
+    private void endCompile(InFlight inFlight) {
+        State s;
+        do {
+            s = state;
+        } while (s.inFlight == inFlight && !STATE.compareAndSet(this, s, s.endCompile()));
+    }
+
+    private Object currentVersion(Template t) {
+        return dependencies != null ? dependencies.version(key, t) : t.getVersion();
+    }
+
+    private static Object join(InFlight inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+        }
+    }
+
+    private static RuntimeException cachedFailure(Template t, RuntimeException failure) {
+
+        // wrapping the cached exception to report the stack of the current caller
+        return new RuntimeException(
+                "Template failed to compile recently and is not retried yet: " + t.getUrl(),
+                failure);
+    }
+
+    /**
+     * A compilation in progress that other callers can wait on.
+     */
+    static final class InFlight extends CompletableFuture<Object> {
+
+        // null for background refreshes
+        final Thread owner;
+
+        InFlight(Thread owner) {
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * An immutable snapshot of the entry state. Time is measured with the {@link CachePolicy#clock}.
+     */
+    static final class State {
+
+        // special "expiresAt" values that are never compared with the clock
+        static final long NEVER = Long.MAX_VALUE;
+        static final long EXPIRED = Long.MIN_VALUE;
+
+        static final State EMPTY = new State(null, null, null, EXPIRED, true, 0, null);
+
+        // the last successfully compiled value and its source version
+        final Object value;
+        final Object version;
+
+        // the last compilation failure, only cached if there's no value and the error back-off is enabled
+        final RuntimeException failure;
+
+        final long expiresAt;
+
+        // explicitly invalidated (or never compiled), must be recompiled regardless of the version
+        final boolean forceCompile;
+
+        // incremented on every explicit invalidation, allowing to detect invalidations that happened during
+        // compilation
+        final int invalidations;
+
+        final InFlight inFlight;
+
+        State(
+                Object value,
+                Object version,
+                RuntimeException failure,
+                long expiresAt,
+                boolean forceCompile,
+                int invalidations,
+                InFlight inFlight) {
+
+            this.value = value;
+            this.version = version;
+            this.failure = failure;
+            this.expiresAt = expiresAt;
+            this.forceCompile = forceCompile;
+            this.invalidations = invalidations;
+            this.inFlight = inFlight;
+        }
+
+        boolean hasTimedExpiration() {
+            return expiresAt != NEVER && expiresAt != EXPIRED;
+        }
+
+        boolean isFresh(long now) {
+            return expiresAt == NEVER || (expiresAt != EXPIRED && now - expiresAt < 0);
+        }
+
+        boolean isDue(long now, long aheadNanos) {
+            return now - (expiresAt - aheadNanos) >= 0;
+        }
+
+        State invalidate() {
+            return new State(value, version, failure, EXPIRED, true, invalidations + 1, inFlight);
+        }
+
+        State startCompile(InFlight inFlight) {
+            return new State(value, version, failure, expiresAt, forceCompile, invalidations, inFlight);
+        }
+
+        State endCompile() {
+            return new State(value, version, failure, expiresAt, forceCompile, invalidations, null);
+        }
+
+        State compiled(State started, Object value, Object version, long now, CachePolicy policy) {
+
+            // if the entry was invalidated while we were compiling, keep it expired
+            return invalidations == started.invalidations
+                    ? new State(value, version, null, expiresAt(now, policy.ttlNanos), false, invalidations, null)
+                    : new State(value, version, null, EXPIRED, true, invalidations, null);
+        }
+
+        State failedStale(State started, long now, CachePolicy policy) {
+
+            // Unless invalidated while compiling, the stale value is served for another TTL (or the back-off, if it is
+            // longer) even with no back-off configured, so that a broken template is not recompiled (and logged) on
+            // every access
+            if (invalidations != started.invalidations) {
+                return endCompile();
+            }
+
+            long retryIn = Math.max(policy.ttlNanos, policy.errorBackoffNanos);
+            return new State(value, version, null, expiresAt(now, retryIn), forceCompile, invalidations, null);
+        }
+
+        State failed(State started, RuntimeException failure, long now, CachePolicy policy) {
+
+            // With no back-off (or if invalidated while compiling), the expiration is unchanged, so the entry is
+            // retried on the next access. A forced compilation stays forced until it succeeds
+            boolean backoff = policy.errorBackoffNanos > 0 && invalidations == started.invalidations;
+            return new State(
+                    value,
+                    version,
+                    backoff ? failure : null,
+                    backoff ? expiresAt(now, policy.errorBackoffNanos) : expiresAt,
+                    forceCompile,
+                    invalidations,
+                    null);
+        }
+
+        private static long expiresAt(long now, long durationNanos) {
+            return durationNanos == CachePolicy.MAX_NANOS ? NEVER : now + durationNanos;
+        }
+    }
+}
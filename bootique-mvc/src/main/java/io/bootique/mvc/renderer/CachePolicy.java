@@ -0,0 +1,60 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Expiration and refresh settings shared by all the entries of a cache. Durations are converted to nanoseconds of
+ * the monotonic {@link System#nanoTime()} clock. The clock itself is a part of the policy, so that the tests can
+ * control the time.
+ *
+ * @since 4.0
+ */
+class CachePolicy {
+
+    // "infinite" durations are capped, so that adding them to the current time never overflows
+    static final long MAX_NANOS = Long.MAX_VALUE / 4;
+
+    final long ttlNanos;
+    final long errorBackoffNanos;
+
+    // optional, refreshing the entries in the background instead of the caller thread
+    final AsyncRefresh asyncRefresh;
+    final long refreshAheadNanos;
+
+    final LongSupplier clock;
+
+    CachePolicy(long ttlMs, long errorBackoffMs, AsyncRefresh asyncRefresh) {
+        this(ttlMs, errorBackoffMs, asyncRefresh, System::nanoTime);
+    }
+
+    CachePolicy(long ttlMs, long errorBackoffMs, AsyncRefresh asyncRefresh, LongSupplier clock) {
+        this.ttlNanos = toNanos(ttlMs);
+        this.errorBackoffNanos = toNanos(errorBackoffMs);
+        this.asyncRefresh = asyncRefresh;
+        this.refreshAheadNanos = asyncRefresh != null ? toNanos(asyncRefresh.aheadMs) : 0;
+        this.clock = clock;
+    }
+
+    private static long toNanos(long ms) {
+        return Math.min(TimeUnit.MILLISECONDS.toNanos(ms), MAX_NANOS);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+/**
+ * A compact "count-min" sketch estimating how often a given key was requested recently. Counters are capped at 15
+ * and are periodically halved, so the estimate reflects recent popularity rather than all-time hits. The class is
+ * not thread-safe and must be accessed under an external lock.
+ *
+ * @since 4.0
+ */
+class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0xb5ad4ece, 0x7feb352d, 0x846ca68b};
+
+    private final byte[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int samples;
+
+    FrequencySketch(int maxSize) {
+
+        int width = Integer.highestOneBit(Math.max(maxSize, 8) - 1) << 1;
+
+        this.table = new byte[DEPTH][width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * Math.max(maxSize, 8);
+    }
+
+    void increment(Object key) {
+
+        int hash = spread(key.hashCode());
+        boolean incremented = false;
+
+        for (int i = 0; i < DEPTH; i++) {
+            int index = index(hash, i);
+            if (table[i][index] < MAX_COUNT) {
+                table[i][index]++;
+                incremented = true;
+            }
+        }
+
+        if (incremented && ++samples >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(Object key) {
+
+        int hash = spread(key.hashCode());
+        int min = MAX_COUNT;
+
+        for (int i = 0; i < DEPTH; i++) {
+            min = Math.min(min, table[i][index(hash, i)]);
+        }
+
+        return min;
+    }
+
+    private int index(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    // "aging" procedure that keeps the sketch biased towards the recent history
+    private void reset() {
+        for (byte[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+
+        samples /= 2;
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 17;
+        h *= 0xed5ad4bb;
+        h ^= h >>> 11;
+        return h;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+
+import java.net.URL;
+import java.util.function.Function;
+
+/**
+ * A cache decorator that notifies {@link TemplateCacheListener}s of the cache events.
+ *
+ * @since 4.0
+ */
+class ListeningTemplateCache implements RenderableTemplateCache {
+
+    private final RenderableTemplateCache delegate;
+    private final TemplateCacheListener[] listeners;
+
+    // per-thread state of the "get" calls in progress, allowing to tell a hit from a miss without allocating
+    private final ThreadLocal<CallState> callState;
+
+    // passed to the delegate on every call instead of the caller's maker, which is taken from the call state
+    private final ListeningMaker listeningMaker;
+
+    ListeningTemplateCache(RenderableTemplateCache delegate, TemplateCacheListener[] listeners) {
+        this.delegate = delegate;
+        this.listeners = listeners;
+        this.callState = ThreadLocal.withInitial(CallState::new);
+        this.listeningMaker = new ListeningMaker();
+
+        if (delegate instanceof BoundedTtlCache) {
+            ((BoundedTtlCache) delegate).setEvictionListener(this::onEviction);
+        }
+    }
+
+    /**
+     * Returns a maker that can be called outside of the "get" call that received it (e.g. by a background refresh).
+     * Makers of this cache depend on the thread state of the "get" call in progress, so they are bound to the caller's
+     * maker. Other makers are returned unchanged.
+     */
+    static <T> Function<Template, T> detach(Function<Template, T> maker) {
+        return maker instanceof ListeningMaker ? (Function<Template, T>) ((ListeningMaker) maker).detach() : maker;
+    }
+
+    @Override
+    public <T> T get(Template template, Function<Template, T> renderedTemplateMaker) {
+
+        CallState state = callState.get();
+
+        // "get" calls may be nested when templates include other templates, so saving the outer call state
+        boolean outerMissed = state.missed;
+        Function<Template, ?> outerMaker = state.maker;
+        state.missed = false;
+        state.maker = renderedTemplateMaker;
+        state.depth++;
+
+        T result;
+        boolean missed;
+        try {
+            result = (T) delegate.get(template, listeningMaker);
+            missed = state.missed;
+        } finally {
+            state.missed = outerMissed;
+            state.maker = outerMaker;
+            state.depth--;
+        }
+
+        if (!missed) {
+            for (TemplateCacheListener l : listeners) {
+                l.onHit(template);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean stores(Template template) {
+        return delegate.stores(template);
+    }
+
+    @Override
+    public void invalidate(URL templateUrl) {
+        delegate.invalidate(templateUrl);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private <T> T compile(Template template, Function<Template, T> renderedTemplateMaker) {
+
+        long start = System.nanoTime();
+        T compiled;
+        try {
+            compiled = renderedTemplateMaker.apply(template);
+        } catch (RuntimeException e) {
+            for (TemplateCacheListener l : listeners) {
+                l.onCompileFailed(template, e);
+            }
+
+            throw e;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        for (TemplateCacheListener l : listeners) {
+            l.onCompiled(template, elapsed);
+        }
+
+        return compiled;
+    }
+
+    private void onEviction(String templateUrl) {
+        for (TemplateCacheListener l : listeners) {
+            l.onEviction(templateUrl);
+        }
+    }
+
+    private static class CallState {
+        int depth;
+        boolean missed;
+        Function<Template, ?> maker;
+    }
+
+    private class ListeningMaker implements Function<Template, Object> {
+
+        @Override
+        public Object apply(Template template) {
+
+            // the innermost "get" call on this thread is the one that invoked the maker
+            CallState state = callState.get();
+            if (state.depth == 0) {
+                throw new IllegalStateException("Template maker is invoked outside of the cache call");
+            }
+
+            state.missed = true;
+            for (TemplateCacheListener l : listeners) {
+                l.onMiss(template);
+            }
+
+            return compile(template, state.maker);
+        }
+
+        // the maker invoked in the background is not a miss
+        Function<Template, Object> detach() {
+            // the caller's maker may be a listening maker too, if the listening caches are nested
+            Function<Template, ?> maker = ListeningTemplateCache.detach(callState.get().maker);
+            return t -> compile(t, maker);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A cache that keeps the templates of each namespace (see {@link Template#getNamespace()}) in a separate cache, so
+ * that evictions in one namespace don't affect the others. Templates with no namespace are stored in a shared cache.
+ * The number of namespaces is limited. When the limit is exceeded, the cache of the least recently used namespace is
+ * closed and discarded.
+ *
+ * @since 4.0
+ */
+class NamespacedTemplateCache implements RenderableTemplateCache {
+
+    private final RenderableTemplateCache sharedCache;
+    private final int maxNamespaces;
+    private final Supplier<RenderableTemplateCache> namespaceCacheFactory;
+    private final ConcurrentMap<String, NamespaceCache> namespaceCaches;
+
+    NamespacedTemplateCache(
+            RenderableTemplateCache sharedCache,
+            int maxNamespaces,
+            Supplier<RenderableTemplateCache> namespaceCacheFactory) {
+
+        this.sharedCache = sharedCache;
+        this.maxNamespaces = Math.max(1, maxNamespaces);
+        this.namespaceCacheFactory = namespaceCacheFactory;
+        this.namespaceCaches = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public <T> T get(Template template, Function<Template, T> renderedTemplateMaker) {
+        return cache(template.getNamespace()).get(template, renderedTemplateMaker);
+    }
+
+    @Override
+    public boolean stores(Template template) {
+        return cache(template.getNamespace()).stores(template);
+    }
+
+    @Override
+    public void invalidate(URL templateUrl) {
+        sharedCache.invalidate(templateUrl);
+        for (NamespaceCache c : namespaceCaches.values()) {
+            c.cache.invalidate(templateUrl);
+        }
+    }
+
+    @Override
+    public void close() {
+        sharedCache.close();
+        for (NamespaceCache c : namespaceCaches.values()) {
+            c.cache.close();
+        }
+    }
+
+    private RenderableTemplateCache cache(String namespace) {
+
+        if (namespace == null) {
+            return sharedCache;
+        }
+
+        NamespaceCache cache = namespaceCaches.get(namespace);
+        if (cache == null) {
+            cache = namespaceCaches.computeIfAbsent(namespace, ns -> new NamespaceCache(namespaceCacheFactory.get()));
+            if (namespaceCaches.size() > maxNamespaces) {
+                evictLeastRecentlyUsed(cache);
+            }
+        }
+
+        cache.touch();
+        return cache.cache;
+    }
+
+    // a linear scan is fine, as it only happens when a new namespace is added
+    private void evictLeastRecentlyUsed(NamespaceCache except) {
+
+        Map.Entry<String, NamespaceCache> lru = null;
+        for (Map.Entry<String, NamespaceCache> e : namespaceCaches.entrySet()) {
+            if (e.getValue() != except && (lru == null || e.getValue().lastUsed - lru.getValue().lastUsed < 0)) {
+                lru = e;
+            }
+        }
+
+        if (lru != null && namespaceCaches.remove(lru.getKey(), lru.getValue())) {
+            lru.getValue().cache.close();
+        }
+    }
+
+    private static class NamespaceCache {
+
+        // limits the frequency of the writes to "lastUsed" shared by all the threads using the namespace
+        private static final long TOUCH_INTERVAL_NANOS = 1_000_000_000L;
+
+        final RenderableTemplateCache cache;
+        volatile long lastUsed;
+
+        NamespaceCache(RenderableTemplateCache cache) {
+            this.cache = cache;
+            this.lastUsed = System.nanoTime();
+        }
+
+        void touch() {
+            long now = System.nanoTime();
+            if (now - lastUsed > TOUCH_INTERVAL_NANOS) {
+                lastUsed = now;
+            }
+        }
+    }
+}
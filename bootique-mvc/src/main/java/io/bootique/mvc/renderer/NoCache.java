@@ -20,12 +20,87 @@ package io.bootique.mvc.renderer;
 
 import io.bootique.mvc.Template;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 class NoCache implements RenderableTemplateCache {
 
+    private final long errorBackoffNanos;
+    private final LongSupplier clock;
+
+    // only the failures are cached, and only if the error back-off is enabled
+    private final ConcurrentMap<String, Failure> failures;
+
+    NoCache() {
+        this(0);
+    }
+
+    NoCache(long errorBackoffMs) {
+        this(errorBackoffMs, System::nanoTime);
+    }
+
+    NoCache(long errorBackoffMs, LongSupplier clock) {
+        this.errorBackoffNanos = TimeUnit.MILLISECONDS.toNanos(errorBackoffMs);
+        this.clock = clock;
+        this.failures = new ConcurrentHashMap<>();
+    }
+
+    int failuresCount() {
+        return failures.size();
+    }
+
     @Override
     public <T> T get(Template template, Function<Template, T> renderedTemplateMaker) {
-        return renderedTemplateMaker.apply(template);
+
+        if (errorBackoffNanos <= 0) {
+            return renderedTemplateMaker.apply(template);
+        }
+
+        String key = template.getCacheKey();
+        Failure failure = failures.get(key);
+        if (failure != null) {
+            if (!failure.isExpired(clock.getAsLong())) {
+                throw new RuntimeException(
+                        "Template failed to compile recently and is not retried yet: " + template.getUrl(),
+                        failure.exception);
+            }
+
+            failures.remove(key, failure);
+        }
+
+        try {
+            return renderedTemplateMaker.apply(template);
+        } catch (RuntimeException e) {
+            long now = clock.getAsLong();
+
+            // failures are rare, so scanning them all here is cheap, and ensures that the templates that failed once
+            // and were never requested again do not stay in memory forever
+            failures.values().removeIf(f -> f.isExpired(now));
+            failures.put(key, new Failure(e, now + errorBackoffNanos));
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean stores(Template template) {
+        return false;
+    }
+
+    private static class Failure {
+
+        final RuntimeException exception;
+        final long expiresOn;
+
+        Failure(RuntimeException exception, long expiresOn) {
+            this.exception = exception;
+            this.expiresOn = expiresOn;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresOn > 0;
+        }
     }
 }
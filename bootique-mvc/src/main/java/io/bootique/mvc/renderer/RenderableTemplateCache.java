@@ -20,15 +20,19 @@ package io.bootique.mvc.renderer;
 
 import io.bootique.mvc.Template;
 
+import java.net.URL;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * A cache to store provider-specific templates.
  *
  * @since 3.0
  */
-public interface RenderableTemplateCache {
+public interface RenderableTemplateCache extends AutoCloseable {
 
     /**
      * Creates a dummy cache that does not store anything and reloads entries on every call.
@@ -37,6 +41,16 @@ public interface RenderableTemplateCache {
         return new NoCache();
     }
 
+    /**
+     * Creates a cache that does not store any templates and reloads them on every call, except for the templates that
+     * failed to compile. Failures are remembered for the "errorBackoff" period and rethrown without recompiling.
+     *
+     * @since 4.0
+     */
+    static RenderableTemplateCache ofNoCache(Duration errorBackoff) {
+        return new NoCache(errorBackoff.toMillis());
+    }
+
     /**
      * Creates an unbounded cache with the specified entry TTL.
      */
@@ -44,5 +58,120 @@ public interface RenderableTemplateCache {
         return new TtlCache(ttl.toMillis());
     }
 
+    /**
+     * Creates a cache with the specified entry TTL that holds at most "maxSize" templates. When the limit is reached,
+     * entries are evicted based on how recently and how frequently they were accessed.
+     *
+     * @since 4.0
+     */
+    static RenderableTemplateCache of(Duration ttl, int maxSize) {
+        return new BoundedTtlCache(ttl.toMillis(), maxSize);
+    }
+
+    /**
+     * Starts building a cache with the specified entry TTL and extra options, such as size limit and background
+     * refresh.
+     *
+     * @since 4.0
+     */
+    static TtlCacheBuilder builder(Duration ttl) {
+        return new TtlCacheBuilder(ttl);
+    }
+
+    /**
+     * Creates an unbounded cache that keeps templates until their source files change on disk. Changes are detected
+     * by a background thread watching the template folders. Templates that are not files are cached forever.
+     *
+     * @since 4.0
+     */
+    static RenderableTemplateCache ofFileWatching() {
+        return new WatchingCache();
+    }
+
+    /**
+     * Creates a file watching cache that remembers template compilation failures for the "errorBackoff" period,
+     * rethrowing them without recompiling the template, unless the template file changes.
+     *
+     * @since 4.0
+     */
+    static RenderableTemplateCache ofFileWatching(Duration errorBackoff) {
+        return new WatchingCache(errorBackoff.toMillis());
+    }
+
+    /**
+     * Creates a cache that sends each template to the cache of the first matching route, or to the default cache, if
+     * no routes match. Route paths are matched against template paths relative to the "templateBaseUrl".
+     *
+     * @since 4.0
+     */
+    static RenderableTemplateCache ofRoutes(
+            List<TemplateCacheRoute> routes,
+            RenderableTemplateCache defaultCache,
+            URL templateBaseUrl) {
+
+        return routes.isEmpty() ? defaultCache : new RoutingTemplateCache(routes, defaultCache, templateBaseUrl);
+    }
+
+    /**
+     * Creates a cache that stores the templates of each namespace (e.g. a tenant) in a separate cache produced by the
+     * "namespaceCacheFactory", so that a large namespace can't evict the templates of the other namespaces. Templates
+     * with no namespace are stored in the "sharedCache". At most "maxNamespaces" namespace caches are kept. When the
+     * limit is exceeded, the cache of the least recently used namespace is closed and discarded.
+     *
+     * @since 4.0
+     */
+    static RenderableTemplateCache ofNamespaces(
+            RenderableTemplateCache sharedCache,
+            int maxNamespaces,
+            Supplier<RenderableTemplateCache> namespaceCacheFactory) {
+
+        return new NamespacedTemplateCache(sharedCache, maxNamespaces, namespaceCacheFactory);
+    }
+
+    /**
+     * Wraps the cache in a decorator that notifies the listeners of the cache events. Returns the cache unchanged if
+     * there are no listeners.
+     *
+     * @since 4.0
+     */
+    static RenderableTemplateCache withListeners(
+            RenderableTemplateCache cache,
+            Collection<TemplateCacheListener> listeners) {
+
+        return listeners.isEmpty()
+                ? cache
+                : new ListeningTemplateCache(cache, listeners.toArray(new TemplateCacheListener[0]));
+    }
+
     <T> T get(Template template, Function<Template, T> renderedTemplateMaker);
+
+    /**
+     * Returns whether the cache keeps the compiled template between the calls, or compiles it on every call. Template
+     * engines that have their own caches may use it to fall back to those for the templates that are not stored here.
+     * The default implementation returns true.
+     *
+     * @since 4.0
+     */
+    default boolean stores(Template template) {
+        return true;
+    }
+
+    /**
+     * Invalidates a cached template located at the specified URL, as well as all the cached templates that included
+     * it as a child resource (partial, include, layout, etc.). Invalidated templates are reloaded on the next access.
+     * The default implementation does nothing.
+     *
+     * @since 4.0
+     */
+    default void invalidate(URL templateUrl) {
+    }
+
+    /**
+     * Releases the resources held by the cache, such as background threads. The default implementation does nothing.
+     *
+     * @since 4.0
+     */
+    @Override
+    default void close() {
+    }
 }
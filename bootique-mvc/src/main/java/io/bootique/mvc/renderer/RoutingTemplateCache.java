@@ -0,0 +1,93 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+
+import java.net.URL;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A cache that delegates to one of the several caches, based on the template path and extension. The first matching
+ * {@link TemplateCacheRoute} wins, and the templates that match no routes go to the default cache. The route is
+ * remembered by the templates that support it (see {@link Template#getCache(TemplateCacheRouter)}), so the lookup
+ * cost of a resolved template doesn't depend on the number of routes.
+ *
+ * @since 4.0
+ */
+class RoutingTemplateCache implements RenderableTemplateCache, TemplateCacheRouter {
+
+    private final TemplateCacheRoute[] routes;
+    private final RenderableTemplateCache defaultCache;
+    private final String baseUrl;
+
+    RoutingTemplateCache(List<TemplateCacheRoute> routes, RenderableTemplateCache defaultCache, URL baseUrl) {
+        this.routes = routes.toArray(new TemplateCacheRoute[0]);
+        this.defaultCache = defaultCache;
+
+        String base = baseUrl.toExternalForm();
+        this.baseUrl = base.endsWith("/") ? base : base + "/";
+    }
+
+    @Override
+    public <T> T get(Template template, Function<Template, T> renderedTemplateMaker) {
+
+        return template.getCache(this).get(template, renderedTemplateMaker);
+    }
+
+    @Override
+    public boolean stores(Template template) {
+        return template.getCache(this).stores(template);
+    }
+
+    @Override
+    public void invalidate(URL templateUrl) {
+
+        // child templates may be tracked by a different cache than the template itself, so notifying all
+        for (TemplateCacheRoute r : routes) {
+            r.getCache().invalidate(templateUrl);
+        }
+
+        defaultCache.invalidate(templateUrl);
+    }
+
+    @Override
+    public void close() {
+        for (TemplateCacheRoute r : routes) {
+            r.getCache().close();
+        }
+
+        defaultCache.close();
+    }
+
+    @Override
+    public RenderableTemplateCache route(Template template) {
+
+        String key = template.getCacheKey();
+        String path = key.startsWith(baseUrl) ? key.substring(baseUrl.length()) : template.getUrl().getPath();
+        for (TemplateCacheRoute r : routes) {
+            if (r.matches(path)) {
+                return r.getCache();
+            }
+        }
+
+        return defaultCache;
+    }
+}
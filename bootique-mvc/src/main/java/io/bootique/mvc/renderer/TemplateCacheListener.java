@@ -0,0 +1,61 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+
+/**
+ * A listener of {@link RenderableTemplateCache} events, e.g. for collecting performance metrics. Listeners are
+ * invoked synchronously on the thread that accessed or refreshed the cache, so they must be fast and thread-safe.
+ * All methods are no-op by default.
+ *
+ * @since 4.0
+ */
+public interface TemplateCacheListener {
+
+    /**
+     * Called when a template was taken from the cache without compiling it on the calling thread.
+     */
+    default void onHit(Template template) {
+    }
+
+    /**
+     * Called when the calling thread had to compile a template.
+     */
+    default void onMiss(Template template) {
+    }
+
+    /**
+     * Called when a template was evicted from a size-bounded cache.
+     */
+    default void onEviction(String templateUrl) {
+    }
+
+    /**
+     * Called after a template was compiled, on the calling thread or in the background.
+     */
+    default void onCompiled(Template template, long elapsedNanos) {
+    }
+
+    /**
+     * Called when a template failed to compile.
+     */
+    default void onCompileFailed(Template template, RuntimeException error) {
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * A rule directing templates matching a path pattern and/or an extension to a dedicated cache. Path patterns are
+ * globs matched against the template path relative to the template base, where "*" matches any chars within a path
+ * component, "**" matches any number of components, and "?" matches a single char, e.g. "com/example/layouts/**".
+ *
+ * @since 4.0
+ */
+public class TemplateCacheRoute {
+
+    private final Pattern path;
+    private final String extension;
+    private final RenderableTemplateCache cache;
+
+    /**
+     * @param pathGlob  an optional glob to match template paths relative to the template base
+     * @param extension an optional template extension, with or without the leading dot
+     * @param cache     the cache for the matching templates
+     */
+    public TemplateCacheRoute(String pathGlob, String extension, RenderableTemplateCache cache) {
+        this.path = pathGlob != null ? globToRegex(pathGlob) : null;
+        this.extension = extension != null ? (extension.startsWith(".") ? extension : "." + extension) : null;
+        this.cache = Objects.requireNonNull(cache);
+    }
+
+    static Pattern globToRegex(String glob) {
+
+        String normalized = glob.startsWith("/") ? glob.substring(1) : glob;
+        StringBuilder regex = new StringBuilder();
+
+        int len = normalized.length();
+        for (int i = 0; i < len; i++) {
+            char c = normalized.charAt(i);
+            switch (c) {
+                case '*':
+                    if (i + 1 < len && normalized.charAt(i + 1) == '*') {
+                        i++;
+
+                        // "**/" also matches no folders at all
+                        if (i + 1 < len && normalized.charAt(i + 1) == '/') {
+                            i++;
+                            regex.append("(?:.*/)?");
+                        } else {
+                            regex.append(".*");
+                        }
+                    } else {
+                        regex.append("[^/]*");
+                    }
+                    break;
+                case '?':
+                    regex.append("[^/]");
+                    break;
+                default:
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                    break;
+            }
+        }
+
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Checks whether the template path relative to the template base matches this route.
+     */
+    public boolean matches(String templatePath) {
+        return (extension == null || templatePath.endsWith(extension))
+                && (path == null || path.matcher(templatePath).matches());
+    }
+
+    public RenderableTemplateCache getCache() {
+        return cache;
+    }
+}
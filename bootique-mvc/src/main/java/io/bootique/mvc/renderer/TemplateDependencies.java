@@ -0,0 +1,323 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Tracks child resources (partials, includes, layouts) that root templates pull in during compilation. Child
+ * sources are loaded once and shared by all the root templates that include them. When a child is invalidated or
+ * its source is found to be changed on reload, only the root templates that depend on it are invalidated.
+ *
+ * @since 4.0
+ */
+class TemplateDependencies {
+
+    private final long sourceTtlMs;
+    private final Consumer<String> rootInvalidator;
+    private final Consumer<URL> childListener;
+
+    // child key -> keys of the root templates that included the child. Not pruned when a root template stops
+    // including a child, which may only result in an extra invalidation. Pruned when the root is removed
+    private final ConcurrentMap<String, Set<String>> dependents;
+
+    // root key -> child resource names mapped to child keys. Sorted by name to produce stable composite versions
+    private final ConcurrentMap<String, ConcurrentMap<String, String>> children;
+    private final ConcurrentMap<String, Source> sources;
+
+    TemplateDependencies(long sourceTtlMs, Consumer<String> rootInvalidator) {
+        this(sourceTtlMs, rootInvalidator, u -> {
+        });
+    }
+
+    TemplateDependencies(long sourceTtlMs, Consumer<String> rootInvalidator, Consumer<URL> childListener) {
+        this.sourceTtlMs = sourceTtlMs;
+        this.rootInvalidator = rootInvalidator;
+        this.childListener = childListener;
+        this.dependents = new ConcurrentHashMap<>();
+        this.children = new ConcurrentHashMap<>();
+        this.sources = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Wraps a root template being compiled, recording the child resources it accesses.
+     */
+    Template track(String rootKey, Template root) {
+        return new TrackingTemplate(rootKey, root);
+    }
+
+    /**
+     * Returns a composite version of the root template and all its known children, or null if any of the versions
+     * can't be determined.
+     */
+    Object version(String rootKey, Template root) {
+
+        Object rootVersion = root.getVersion();
+        if (rootVersion == null) {
+            return null;
+        }
+
+        ConcurrentMap<String, String> rootChildren = children.get(rootKey);
+        Set<String> childNames = rootChildren != null ? rootChildren.keySet() : null;
+        if (childNames == null || childNames.isEmpty()) {
+            return rootVersion;
+        }
+
+        List<Object> version = new ArrayList<>(childNames.size() + 1);
+        version.add(rootVersion);
+        for (String name : childNames) {
+            Object childVersion = root.getVersion(name);
+            if (childVersion == null) {
+                return null;
+            }
+
+            version.add(childVersion);
+        }
+
+        return version;
+    }
+
+    /**
+     * Drops the cached source of the child and invalidates all the root templates that depend on it.
+     */
+    void invalidate(String childKey) {
+        sources.remove(childKey);
+        invalidateDependents(childKey, null);
+    }
+
+    /**
+     * Forgets the children of a root template that was removed from the cache. Child sources that are no longer
+     * included by any of the remaining roots are dropped.
+     */
+    void remove(String rootKey) {
+
+        ConcurrentMap<String, String> rootChildren = children.remove(rootKey);
+        if (rootChildren == null) {
+            return;
+        }
+
+        for (String childKey : rootChildren.values()) {
+            dependents.computeIfPresent(childKey, (k, keys) -> {
+                keys.remove(rootKey);
+                if (!keys.isEmpty()) {
+                    return keys;
+                }
+
+                sources.remove(childKey);
+                return null;
+            });
+        }
+    }
+
+    Set<String> dependents(String childKey) {
+        Set<String> keys = dependents.get(childKey);
+        return keys != null ? Collections.unmodifiableSet(keys) : Collections.emptySet();
+    }
+
+    private void invalidateDependents(String childKey, String exceptRootKey) {
+        Set<String> keys = dependents.get(childKey);
+        if (keys != null) {
+            for (String k : keys) {
+                if (!k.equals(exceptRootKey)) {
+                    rootInvalidator.accept(k);
+                }
+            }
+        }
+    }
+
+    private void addDependent(String childKey, URL childUrl, String rootKey, String resourceName) {
+
+        children.computeIfAbsent(rootKey, k -> new ConcurrentSkipListMap<>()).put(resourceName, childKey);
+
+        // "compute" is atomic with the pruning done in "remove", so a dependent is never added to a discarded set
+        boolean[] newChild = new boolean[1];
+        dependents.compute(childKey, (k, keys) -> {
+            if (keys == null) {
+                keys = ConcurrentHashMap.newKeySet();
+                newChild[0] = true;
+            }
+
+            keys.add(rootKey);
+            return keys;
+        });
+
+        if (newChild[0]) {
+            childListener.accept(childUrl);
+        }
+    }
+
+    private String source(String childKey, String rootKey, Template root, String resourceName) {
+
+        Object version = root.getVersion(resourceName);
+
+        Source source = sources.get(childKey);
+        if (source != null && source.isValid(version, System.currentTimeMillis())) {
+            return source.text;
+        }
+
+        // "compute" ensures that the child is loaded only once even if multiple roots are compiled in parallel
+        boolean[] changed = new boolean[1];
+        Source reloaded = sources.compute(childKey, (k, old) -> {
+
+            if (old != null && old.isValid(version, System.currentTimeMillis())) {
+                return old;
+            }
+
+            Source fresh = new Source(
+                    read(root.reader(resourceName)),
+                    version,
+                    System.currentTimeMillis() + sourceTtlMs);
+
+            changed[0] = old != null && !old.text.equals(fresh.text);
+            return fresh;
+        });
+
+        // other roots compiled with the old child source are now stale
+        if (changed[0]) {
+            invalidateDependents(childKey, rootKey);
+        }
+
+        return reloaded.text;
+    }
+
+    private static String read(Reader reader) {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[4096];
+
+        try (Reader in = reader) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                text.append(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return text.toString();
+    }
+
+    private static class Source {
+
+        final String text;
+        final Object version;
+        final long expiresOn;
+
+        Source(String text, Object version, long expiresOn) {
+            this.text = text;
+            this.version = version;
+
+            // saturate to allow "infinite" TTLs
+            this.expiresOn = expiresOn < 0 ? Long.MAX_VALUE : expiresOn;
+        }
+
+        boolean isValid(Object currentVersion, long now) {
+
+            // if versions are known, they are more reliable than the TTL
+            return currentVersion != null
+                    ? currentVersion.equals(version)
+                    : expiresOn >= now;
+        }
+    }
+
+    private class TrackingTemplate implements Template {
+
+        private final String rootKey;
+        private final Template root;
+
+        TrackingTemplate(String rootKey, Template root) {
+            this.rootKey = rootKey;
+            this.root = root;
+        }
+
+        @Override
+        public String getName() {
+            return root.getName();
+        }
+
+        @Override
+        public URL getUrl() {
+            return root.getUrl();
+        }
+
+        @Override
+        public String getCacheKey() {
+            return root.getCacheKey();
+        }
+
+        @Override
+        public RenderableTemplateCache getCache(TemplateCacheRouter router) {
+            return root.getCache(router);
+        }
+
+        @Override
+        public URL getUrl(String resourceName) {
+            URL url = root.getUrl(resourceName);
+            addDependent(url.toExternalForm(), url, rootKey, resourceName);
+            return url;
+        }
+
+        @Override
+        public Reader reader() {
+            return root.reader();
+        }
+
+        @Override
+        public Reader reader(String resourceName) {
+            URL url = root.getUrl(resourceName);
+            String childKey = url.toExternalForm();
+            addDependent(childKey, url, rootKey, resourceName);
+            return new StringReader(source(childKey, rootKey, root, resourceName));
+        }
+
+        @Override
+        public Charset getEncoding() {
+            return root.getEncoding();
+        }
+
+        @Override
+        public Object getVersion() {
+            return root.getVersion();
+        }
+
+        @Override
+        public Object getVersion(String resourceName) {
+            return root.getVersion(resourceName);
+        }
+
+        @Override
+        public String getNamespace() {
+            return root.getNamespace();
+        }
+    }
+}
@@ -27,4 +27,14 @@ import io.bootique.mvc.Template;
 public interface TemplateRenderer {
 
 	void render(Writer out, Template template, Object rootModel) throws IOException;
+
+	/**
+	 * Loads and compiles the template ahead of time, storing it in the template cache, so that the first render call
+	 * would not have to do it. Default implementation does nothing.
+	 *
+	 * @since 4.0
+	 */
+	default void warmUp(Template template) throws IOException {
+		// do nothing
+	}
 }
@@ -20,84 +20,56 @@ package io.bootique.mvc.renderer;
 
 import io.bootique.mvc.Template;
 
-import java.util.Objects;
+import java.net.URL;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 class TtlCache implements RenderableTemplateCache {
 
-    private final long ttlMs;
+    private final CachePolicy policy;
     private final ConcurrentMap<String, CacheEntry> cache;
+    private final TemplateDependencies dependencies;
 
     public TtlCache(long ttlMs) {
-        this.ttlMs = ttlMs;
-        this.cache = new ConcurrentHashMap<>();
+        this(ttlMs, null, 0);
     }
 
-    @Override
-    public <T> T get(Template template, Function<Template, T> renderedTemplateMaker) {
-        return cache
-                .computeIfAbsent(template.getUrl().toExternalForm(), k -> new CacheEntry())
-                .updateIfNeeded(template, renderedTemplateMaker);
+    TtlCache(long ttlMs, AsyncRefresh asyncRefresh, long errorBackoffMs) {
+        this(ttlMs, asyncRefresh, errorBackoffMs, System::nanoTime);
     }
 
-    class CacheEntry {
-
-        private final Lock lock;
-
-        volatile long expiresOn;
-        volatile Object value;
-
-        CacheEntry() {
-            // create as expired
-            this.expiresOn = System.currentTimeMillis() - 1;
-            this.lock = new ReentrantLock();
-        }
-
-        <T> T updateIfNeeded(Template t, Function<Template, T> tMaker) {
-            long expiredOn = this.expiresOn;
-            return expiredOn >= System.currentTimeMillis()
-                    ? (T) value
-                    // we must wait on the first update, but after that we can reuse a stale template
-                    : value != null ? updateTryLock(expiredOn, t, tMaker) : updateLock(expiredOn, t, tMaker);
-        }
-
-        private <T> T updateLock(long expiredOn, Template t, Function<Template, T> tMaker) {
-
-            lock.lock();
-
-            try {
-                return updateNoLocks(expiredOn, t, tMaker);
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        private <T> T updateTryLock(long expiredOn, Template t, Function<Template, T> tMaker) {
+    TtlCache(long ttlMs, AsyncRefresh asyncRefresh, long errorBackoffMs, LongSupplier clock) {
+        this.policy = new CachePolicy(ttlMs, errorBackoffMs, asyncRefresh, clock);
+        this.cache = new ConcurrentHashMap<>();
+        this.dependencies = new TemplateDependencies(ttlMs, this::invalidateEntry);
+    }
 
-            if (!lock.tryLock()) {
-                return (T) value;
-            }
+    @Override
+    public <T> T get(Template template, Function<Template, T> renderedTemplateMaker) {
 
-            try {
-                return updateNoLocks(expiredOn, t, tMaker);
-            } finally {
-                lock.unlock();
-            }
+        // check before "computeIfAbsent" to avoid locking and allocating a lambda for the existing entries
+        String key = template.getCacheKey();
+        CacheEntry entry = cache.get(key);
+        if (entry == null) {
+            entry = cache.computeIfAbsent(key, k -> new CacheEntry(policy, dependencies, k));
         }
 
-        private <T> T updateNoLocks(long expiredOn, Template t, Function<Template, T> tMaker) {
+        return entry.updateIfNeeded(template, renderedTemplateMaker);
+    }
 
-            // if no one else updated the template while we were getting the lock
-            if (expiredOn == this.expiresOn) {
-                this.value = Objects.requireNonNull(tMaker.apply(t));
-                this.expiresOn = System.currentTimeMillis() + ttlMs;
-            }
+    @Override
+    public void invalidate(URL templateUrl) {
+        String key = templateUrl.toExternalForm();
+        invalidateEntry(key);
+        dependencies.invalidate(key);
+    }
 
-            return (T) value;
+    private void invalidateEntry(String key) {
+        CacheEntry entry = cache.get(key);
+        if (entry != null) {
+            entry.invalidate();
         }
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
+/**
+ * A builder of TTL-based {@link RenderableTemplateCache} instances.
+ *
+ * @since 4.0
+ */
+public class TtlCacheBuilder {
+
+    private static final int UNBOUNDED = -1;
+
+    private final long ttlMs;
+    private int maxSize;
+    private Executor refreshExecutor;
+    private long refreshAheadMs;
+    private long errorBackoffMs;
+    private LongSupplier clock;
+
+    TtlCacheBuilder(Duration ttl) {
+        this.ttlMs = Objects.requireNonNull(ttl).toMillis();
+        this.maxSize = UNBOUNDED;
+        this.clock = System::nanoTime;
+    }
+
+    /**
+     * Limits the cache to hold at most "maxSize" templates. When the limit is reached, entries are evicted based on
+     * how recently and how frequently they were accessed. By default, the cache is unbounded.
+     */
+    public TtlCacheBuilder maxSize(int maxSize) {
+
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache max size must be positive: " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Makes the cache refresh expired entries on the specified executor, serving the stale template in the meantime.
+     * Only the initial template load happens on the calling thread.
+     */
+    public TtlCacheBuilder asyncRefresh(Executor executor) {
+        this.refreshExecutor = Objects.requireNonNull(executor);
+        return this;
+    }
+
+    /**
+     * Starts background refresh of the accessed entries some time before they expire, so that the frequently used
+     * templates never get stale. Requires {@link #asyncRefresh(Executor)}.
+     */
+    public TtlCacheBuilder refreshAhead(Duration refreshAhead) {
+        this.refreshAheadMs = refreshAhead.toMillis();
+        return this;
+    }
+
+    /**
+     * Caches template compilation failures for the specified period, rethrowing them without recompiling the broken
+     * template on every access. Regardless of this setting, if a template that was compiled successfully before fails
+     * to recompile, the previous version is served until the next refresh attempt. By default, failed templates are
+     * recompiled on the next access.
+     */
+    public TtlCacheBuilder errorBackoff(Duration errorBackoff) {
+        this.errorBackoffMs = errorBackoff.toMillis();
+        return this;
+    }
+
+    // replaces the "System.nanoTime()" clock in tests
+    TtlCacheBuilder clock(LongSupplier clock) {
+        this.clock = Objects.requireNonNull(clock);
+        return this;
+    }
+
+    public RenderableTemplateCache build() {
+
+        if (refreshAheadMs > 0 && refreshExecutor == null) {
+            throw new IllegalStateException("'refreshAhead' requires 'asyncRefresh' executor to be set");
+        }
+
+        AsyncRefresh asyncRefresh = refreshExecutor != null ? new AsyncRefresh(refreshExecutor, refreshAheadMs) : null;
+        return maxSize == UNBOUNDED
+                ? new TtlCache(ttlMs, asyncRefresh, errorBackoffMs, clock)
+                : new BoundedTtlCache(ttlMs, maxSize, asyncRefresh, errorBackoffMs, clock);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A cache that keeps compiled templates until their source files change. Template files are monitored with a
+ * {@link WatchService} running on a background daemon thread, and the entries of the changed files are invalidated,
+ * being reloaded on the next access (while still serving the previous version to concurrent callers). Templates
+ * that are not files (e.g. those in jars or on remote servers) are cached forever. Child templates (partials,
+ * includes) are watched as well, and their changes invalidate the templates that included them.
+ */
+class WatchingCache implements RenderableTemplateCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WatchingCache.class);
+
+    private final CachePolicy policy;
+    private final ConcurrentMap<String, CacheEntry> cache;
+    private final TemplateDependencies dependencies;
+
+    // tracking watched files and folders, written from the request threads and read from the watch thread
+    private final ConcurrentMap<Path, String> keysByPath;
+    private final ConcurrentMap<Path, WatchKey> watchedFolders;
+
+    private volatile WatchService watchService;
+    private boolean closed;
+
+    public WatchingCache() {
+        this(0);
+    }
+
+    WatchingCache(long errorBackoffMs) {
+        this.policy = new CachePolicy(Long.MAX_VALUE, errorBackoffMs, null);
+        this.cache = new ConcurrentHashMap<>();
+        this.dependencies = new TemplateDependencies(Long.MAX_VALUE, this::invalidateEntry, this::watchChild);
+        this.keysByPath = new ConcurrentHashMap<>();
+        this.watchedFolders = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public <T> T get(Template template, Function<Template, T> renderedTemplateMaker) {
+
+        // check before "computeIfAbsent" to avoid locking and allocating a lambda for the existing entries
+        String key = template.getCacheKey();
+        CacheEntry entry = cache.get(key);
+        if (entry == null) {
+            URL url = template.getUrl();
+            entry = cache.computeIfAbsent(key, k -> createEntry(k, url));
+        }
+
+        return entry.updateIfNeeded(template, renderedTemplateMaker);
+    }
+
+    @Override
+    public void close() {
+
+        WatchService watchService;
+        synchronized (this) {
+            this.closed = true;
+            watchService = this.watchService;
+        }
+
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.warn("Error closing template watch service", e);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(URL templateUrl) {
+        invalidate(templateUrl.toExternalForm());
+    }
+
+    /**
+     * Invalidates the entry for the template file located at the specified path.
+     */
+    void invalidate(Path path) {
+        String key = keysByPath.get(path);
+        if (key != null) {
+            LOGGER.debug("Template changed: {}", path);
+            invalidate(key);
+        }
+    }
+
+    private void invalidate(String key) {
+        invalidateEntry(key);
+        dependencies.invalidate(key);
+    }
+
+    private void invalidateEntry(String key) {
+        CacheEntry entry = cache.get(key);
+        if (entry != null) {
+            entry.invalidate();
+        }
+    }
+
+    private CacheEntry createEntry(String key, URL url) {
+
+        if ("file".equals(url.getProtocol())) {
+            watch(key, url);
+        }
+
+        // entries never expire on their own
+        return new CacheEntry(policy, dependencies, key);
+    }
+
+    private void watchChild(URL url) {
+        if ("file".equals(url.getProtocol())) {
+            watch(url.toExternalForm(), url);
+        }
+    }
+
+    private void watch(String key, URL url) {
+
+        Path path;
+        try {
+            path = Paths.get(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            LOGGER.warn("Can't watch template URL, it will not be reloaded: {}", url);
+            return;
+        }
+
+        keysByPath.put(path, key);
+
+        Path folder = path.getParent();
+        if (folder != null) {
+            watchedFolders.computeIfAbsent(folder, this::register);
+        }
+    }
+
+    private WatchKey register(Path folder) {
+        try {
+            return folder.register(
+                    watchService(),
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | ClosedWatchServiceException e) {
+            LOGGER.warn("Can't watch template folder, templates in it will not be reloaded: {}", folder, e);
+            return null;
+        }
+    }
+
+    private WatchService watchService() throws IOException {
+
+        // lazy start, as the app may not have any file templates
+        if (watchService == null) {
+            synchronized (this) {
+                if (watchService == null) {
+
+                    if (closed) {
+                        throw new IOException("Template watch service is closed");
+                    }
+
+                    WatchService watchService = FileSystems.getDefault().newWatchService();
+
+                    Thread watchThread = new Thread(() -> watchLoop(watchService), "bootique-mvc-template-watcher");
+                    watchThread.setDaemon(true);
+                    watchThread.start();
+
+                    this.watchService = watchService;
+                }
+            }
+        }
+
+        return watchService;
+    }
+
+    private void watchLoop(WatchService watchService) {
+
+        while (true) {
+            WatchKey watchKey;
+            try {
+                watchKey = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path folder = (Path) watchKey.watchable();
+            for (WatchEvent<?> event : watchKey.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+
+                    // lost track of the changes, must invalidate everything
+                    keysByPath.values().forEach(this::invalidate);
+                } else {
+                    invalidate(folder.resolve((Path) event.context()));
+                }
+            }
+
+            watchKey.reset();
+        }
+    }
+}
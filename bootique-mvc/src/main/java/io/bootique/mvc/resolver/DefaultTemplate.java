@@ -19,12 +19,22 @@
 package io.bootique.mvc.resolver;
 
 import io.bootique.mvc.Template;
+import io.bootique.mvc.renderer.RenderableTemplateCache;
+import io.bootique.mvc.renderer.TemplateCacheRouter;
+import io.bootique.mvc.renderer.TemplateRenderer;
+import io.bootique.mvc.renderer.TemplateRenderers;
 import io.bootique.resource.FolderResourceFactory;
 
+import java.io.CharArrayReader;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URL;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
 /**
@@ -35,14 +45,24 @@ import java.util.function.Function;
  */
 public class DefaultTemplate implements Template {
 
+    // enough for the partials of any reasonable template, while protecting from unbounded growth if the resource names
+    // are generated dynamically
+    static final int MAX_CACHED_URLS = 64;
+
     private final FolderResourceFactory base;
     private final String path;
     private final String name;
     private final Charset sourceEncoding;
     private final Function<String, URL> onFailedUrl;
     private final Function<URL, Reader> onFailedReader;
+    private final TemplateSourceStore sourceStore;
+    private final String namespace;
 
     private volatile URL url;
+    private volatile String cacheKey;
+    private volatile RendererBinding renderer;
+    private volatile CacheBinding cache;
+    private volatile ConcurrentMap<String, URL> resourceUrls;
 
     public DefaultTemplate(
             FolderResourceFactory base,
@@ -51,6 +71,38 @@ public class DefaultTemplate implements Template {
             Charset sourceEncoding,
             Function<String, URL> onFailedUrl,
             Function<URL, Reader> onFailedReader) {
+        this(base, path, name, sourceEncoding, onFailedUrl, onFailedReader, null);
+    }
+
+    /**
+     * @param sourceStore an optional in-memory store of template sources. If present, the sources found in the store
+     *                    are read from memory instead of their URLs.
+     * @since 4.0
+     */
+    public DefaultTemplate(
+            FolderResourceFactory base,
+            String path,
+            String name,
+            Charset sourceEncoding,
+            Function<String, URL> onFailedUrl,
+            Function<URL, Reader> onFailedReader,
+            TemplateSourceStore sourceStore) {
+        this(base, path, name, sourceEncoding, onFailedUrl, onFailedReader, sourceStore, null);
+    }
+
+    /**
+     * @param namespace an optional namespace of the template used by the caches to enforce per-namespace quotas
+     * @since 4.0
+     */
+    public DefaultTemplate(
+            FolderResourceFactory base,
+            String path,
+            String name,
+            Charset sourceEncoding,
+            Function<String, URL> onFailedUrl,
+            Function<URL, Reader> onFailedReader,
+            TemplateSourceStore sourceStore,
+            String namespace) {
 
         this.name = name;
         this.base = base;
@@ -58,6 +110,8 @@ public class DefaultTemplate implements Template {
         this.sourceEncoding = sourceEncoding;
         this.onFailedUrl = onFailedUrl;
         this.onFailedReader = onFailedReader;
+        this.sourceStore = sourceStore;
+        this.namespace = namespace;
     }
 
     @Override
@@ -71,42 +125,164 @@ public class DefaultTemplate implements Template {
         return url;
     }
 
+    /**
+     * @since 4.0
+     */
+    @Override
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @Override
+    public String getCacheKey() {
+
+        // same as the URL, no harm if calculated multiple times
+        if (this.cacheKey == null) {
+            this.cacheKey = getUrl().toExternalForm();
+        }
+
+        return cacheKey;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @Override
+    public TemplateRenderer getRenderer(TemplateRenderers renderers) {
+
+        // remembering the renderers the binding was made for, in case the template is shared between view writers
+        // with different renderers. No harm if resolved multiple times if called concurrently the first time
+        RendererBinding renderer = this.renderer;
+        if (renderer == null || renderer.renderers != renderers) {
+            this.renderer = renderer = new RendererBinding(renderers, renderers.getRenderer(this));
+        }
+
+        return renderer.renderer;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @Override
+    public RenderableTemplateCache getCache(TemplateCacheRouter router) {
+
+        // same approach as with the renderer binding
+        CacheBinding cache = this.cache;
+        if (cache == null || cache.router != router) {
+            this.cache = cache = new CacheBinding(router, router.route(this));
+        }
+
+        return cache.cache;
+    }
+
     @Override
     public URL getUrl(String resourceName) {
 
-        // TODO: does it make sense to cache subresource URLs?
+        // Resolving a URL is a function of the base, the path and the resource name, so the result never goes stale,
+        // even when the template cache reloads the sources. This is true for failures as well, as the base only fails
+        // on paths outside the base and on missing classpath resources, and the classpath doesn't change. So fallback
+        // URLs of the missing resources are cached too, and the missing optional partials don't cost an exception
+        // on every lookup. Failures with no fallback are rethrown every time.
+
+        ConcurrentMap<String, URL> resourceUrls = resourceUrls();
+        URL url = resourceUrls.get(resourceName);
+        if (url != null) {
+            return url;
+        }
 
         try {
             String path = resourcePath(resourceName);
-            return base.getUrl(path);
+            url = base.getUrl(path);
         } catch (Exception e) {
-            return onFailedUrl(resourceName, e);
+            url = onFailedUrl(resourceName, e);
+        }
+
+        if (url != null && resourceUrls.size() < MAX_CACHED_URLS) {
+            resourceUrls.putIfAbsent(resourceName, url);
         }
+
+        return url;
+    }
+
+    private ConcurrentMap<String, URL> resourceUrls() {
+
+        // No synchronization. If created multiple times concurrently, some URLs will simply be resolved again
+        ConcurrentMap<String, URL> resourceUrls = this.resourceUrls;
+        if (resourceUrls == null) {
+            this.resourceUrls = resourceUrls = new ConcurrentHashMap<>();
+        }
+
+        return resourceUrls;
     }
 
     @Override
     public Reader reader() {
-        Charset encoding = getEncoding();
+        return reader(getUrl());
+    }
+
+    @Override
+    public Reader reader(String resourceName) {
+        return reader(getUrl(resourceName));
+    }
 
-        URL url = getUrl();
+    private Reader reader(URL url) {
+
+        if (sourceStore != null) {
+            Reader stored = sourceStore.reader(url);
+            if (stored != null) {
+                return stored;
+            }
+        }
 
         try {
-            return new InputStreamReader(url.openStream(), encoding);
+            if ("file".equals(url.getProtocol())) {
+                Path file = Paths.get(url.toURI());
+
+                // if there's a fallback, check for missing files upfront, as the exception thrown when opening a
+                // missing file is expensive. Files may appear later, so unlike URLs, the result is never cached
+                if (onFailedReader != null && !file.toFile().isFile()) {
+                    return onFailedReader.apply(url);
+                }
+
+                CharBuffer chars = FileSources.read(file, getEncoding());
+                return new CharArrayReader(chars.array(), 0, chars.limit());
+            }
+
+            return new InputStreamReader(url.openStream(), getEncoding());
         } catch (Exception e) {
             return onFailedReader(url, e);
         }
     }
 
+    /**
+     * @since 4.0
+     */
     @Override
-    public Reader reader(String resourceName) {
-        Charset encoding = getEncoding();
+    public Object getVersion() {
+        return version(getUrl());
+    }
 
-        URL url = getUrl(resourceName);
-        try {
-            return new InputStreamReader(url.openStream(), encoding);
-        } catch (Exception e) {
-            return onFailedReader(url, e);
+    /**
+     * @since 4.0
+     */
+    @Override
+    public Object getVersion(String resourceName) {
+        return version(getUrl(resourceName));
+    }
+
+    private Object version(URL url) {
+
+        if (sourceStore != null) {
+            Object stored = sourceStore.getVersion(url);
+            if (stored != null) {
+                return stored;
+            }
         }
+
+        return ResourceVersion.of(url);
     }
 
     @Override
@@ -160,28 +336,59 @@ public class DefaultTemplate implements Template {
 
     protected static void checkPathWithinBounds(String resourcePath) {
 
-        if (resourcePath.length() < 2) {
+        int len = resourcePath.length();
+        if (len < 2) {
             return;
         }
 
+        // A single pass over the path chars without allocating substrings. Both "/" and "\\" (Windows) are separators.
+        // Any non-empty component other than ".." (including ".") goes one level deeper, ".." goes one level up.
+
         int depth = 0;
+        int componentLength = 0;
+        boolean dotsOnly = true;
 
-        // account for windows paths
-        String normalizedPath = resourcePath.replace('\\', '/');
+        for (int i = 0; i <= len; i++) {
 
-        for (String component : normalizedPath.split("/")) {
-            if (component.length() > 0) {
-                if ("..".equals(component)) {
-                    depth--;
+            char c = i < len ? resourcePath.charAt(i) : '/';
+            if (c == '/' || c == '\\') {
 
-                    if (depth < 0) {
+                if (componentLength == 2 && dotsOnly) {
+                    if (--depth < 0) {
                         throw new RuntimeException("Path is outside the template base: " + resourcePath);
                     }
-
-                } else {
+                } else if (componentLength > 0) {
                     depth++;
                 }
+
+                componentLength = 0;
+                dotsOnly = true;
+            } else {
+                componentLength++;
+                dotsOnly = dotsOnly && c == '.';
             }
         }
     }
+
+    private static final class RendererBinding {
+
+        final TemplateRenderers renderers;
+        final TemplateRenderer renderer;
+
+        RendererBinding(TemplateRenderers renderers, TemplateRenderer renderer) {
+            this.renderers = renderers;
+            this.renderer = renderer;
+        }
+    }
+
+    private static final class CacheBinding {
+
+        final TemplateCacheRouter router;
+        final RenderableTemplateCache cache;
+
+        CacheBinding(TemplateCacheRouter router, RenderableTemplateCache cache) {
+            this.router = router;
+            this.cache = cache;
+        }
+    }
 }
@@ -26,17 +26,30 @@ import java.io.Reader;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 public class DefaultTemplateResolver implements TemplateResolver {
 
     private final Charset templateEncoding;
     private final FolderResourceFactory templateBase;
-    private final ConcurrentMap<String, Template> cachedTemplates;
+    private final ClassValue<ConcurrentMap<String, Template>> cachedTemplates;
     private final Function<String, URL> onFailedUrl;
     private final Function<URL, Reader> onFailedReader;
+    private final TemplateSourceStore sourceStore;
+
+    // namespace quota settings and state, only used if "namespaceQuota" is positive
+    private final int namespaceQuota;
+    private final int maxNamespaces;
+    private final ConcurrentMap<String, Namespace> namespaces;
+
+    // a source of "System.nanoTime()"-compatible time for the namespace LRU tracking
+    private final LongSupplier clock;
 
     /**
      * @since 3.0
@@ -46,27 +59,310 @@ public class DefaultTemplateResolver implements TemplateResolver {
             Charset templateEncoding,
             Function<String, URL> onFailedUrl,
             Function<URL, Reader> onFailedReader) {
+        this(templateBase, templateEncoding, onFailedUrl, onFailedReader, null);
+    }
+
+    /**
+     * @param sourceStore an optional in-memory store of template sources shared by all the resolved templates
+     * @since 4.0
+     */
+    public DefaultTemplateResolver(
+            FolderResourceFactory templateBase,
+            Charset templateEncoding,
+            Function<String, URL> onFailedUrl,
+            Function<URL, Reader> onFailedReader,
+            TemplateSourceStore sourceStore) {
+        this(templateBase, templateEncoding, onFailedUrl, onFailedReader, sourceStore, 0, 0);
+    }
+
+    /**
+     * @param namespaceQuota if positive, the maximum number of resolved templates to keep per namespace (usually
+     *                       a tenant). Templates of each namespace are evicted independently of the other namespaces.
+     *                       Templates that are not a part of any namespace are not subject to the quota.
+     * @param maxNamespaces  the maximum number of namespaces to keep templates for. When exceeded, the templates of
+     *                       the least recently used namespace are evicted.
+     * @since 4.0
+     */
+    public DefaultTemplateResolver(
+            FolderResourceFactory templateBase,
+            Charset templateEncoding,
+            Function<String, URL> onFailedUrl,
+            Function<URL, Reader> onFailedReader,
+            TemplateSourceStore sourceStore,
+            int namespaceQuota,
+            int maxNamespaces) {
+        this(templateBase, templateEncoding, onFailedUrl, onFailedReader, sourceStore, namespaceQuota, maxNamespaces,
+                System::nanoTime);
+    }
+
+    DefaultTemplateResolver(
+            FolderResourceFactory templateBase,
+            Charset templateEncoding,
+            Function<String, URL> onFailedUrl,
+            Function<URL, Reader> onFailedReader,
+            TemplateSourceStore sourceStore,
+            int namespaceQuota,
+            int maxNamespaces,
+            LongSupplier clock) {
         this.templateBase = templateBase;
         this.templateEncoding = Objects.requireNonNull(templateEncoding, "Null templateEncoding");
-        this.cachedTemplates = new ConcurrentHashMap<>();
+        this.cachedTemplates = new ClassValue<>() {
+            @Override
+            protected ConcurrentMap<String, Template> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
         this.onFailedUrl = onFailedUrl;
         this.onFailedReader = onFailedReader;
+        this.sourceStore = sourceStore;
+        this.namespaceQuota = namespaceQuota;
+        this.maxNamespaces = Math.max(1, maxNamespaces);
+        this.namespaces = new ConcurrentHashMap<>();
+        this.clock = clock;
     }
 
     @Override
     public Template resolve(String templateName, Class<?> viewType) {
 
-        Package pkg = viewType.getPackage();
+        if (namespaceQuota > 0) {
+            return resolve(templateName, null, viewType);
+        }
+
+        // two-level lookup by view class and then by name doesn't require creating a composite key, so a lookup of
+        // an already resolved template doesn't allocate any memory
+        ConcurrentMap<String, Template> templates = cachedTemplates.get(viewType);
+        Template template = templates.get(templateName);
+        return template != null
+                ? template
+                : templates.computeIfAbsent(templateName, n -> createTemplate(n, viewType.getPackage()));
+    }
+
+    /**
+     * @since 4.0
+     */
+    @Override
+    public Template resolve(String templateName, String namespace, Class<?> viewType) {
+
+        if (namespaceQuota <= 0) {
+            return resolve(templateName, viewType);
+        }
+
+        // the name-derived namespace is the same for a given name, so the templates can be looked up by name alone
+        Namespace explicit = namespace != null ? namespace(namespace) : null;
+        ConcurrentMap<String, Template> templates = explicit != null
+                ? explicit.templates(viewType)
+                : cachedTemplates.get(viewType);
+
+        Template template = templates.get(templateName);
+        if (template != null) {
+
+            // the explicit namespace is already touched
+            if (explicit == null) {
+                touch(template.getNamespace());
+            }
+
+            return template;
+        }
+
+        Namespace ns = explicit;
+        if (ns == null) {
+            String derived = namespaceFromName(templateName);
+            if (derived == null) {
+                return templates.computeIfAbsent(templateName, n -> createTemplate(n, viewType.getPackage(), null));
+            }
+
+            ns = namespace(derived);
+        }
+
+        // not using "computeIfAbsent", as the quota may need to remove other entries from the same map
+        Template created = createTemplate(templateName, viewType.getPackage(), ns.name);
+        Template existing = templates.putIfAbsent(templateName, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        ns.admit(templates, templateName, created);
+        return created;
+    }
+
+    private Namespace namespace(String name) {
 
-        // the key is not the same as template path. It is simply the cheapest unique String
-        // we can produce for name and package name
-        String key = pkg != null ? pkg.getName() + templateName : templateName;
+        Namespace ns = namespaces.get(name);
+        if (ns == null) {
+            ns = namespaces.computeIfAbsent(name, n -> new Namespace(n, namespaceQuota, clock));
+            if (namespaces.size() > maxNamespaces) {
+                evictLeastRecentlyUsed(ns);
+            }
+        }
 
-        return cachedTemplates.computeIfAbsent(key, k -> createTemplate(templateName, pkg));
+        ns.touch();
+        return ns;
+    }
+
+    private void touch(String namespace) {
+        if (namespace != null) {
+            Namespace ns = namespaces.get(namespace);
+            if (ns != null) {
+                ns.touch();
+            }
+        }
+    }
+
+    // a linear scan is fine, as it only happens when a new namespace is added
+    private void evictLeastRecentlyUsed(Namespace except) {
+
+        Namespace lru = null;
+        for (Namespace ns : namespaces.values()) {
+            if (ns != except && (lru == null || ns.lastUsed - lru.lastUsed < 0)) {
+                lru = ns;
+            }
+        }
+
+        if (lru != null && namespaces.remove(lru.name, lru)) {
+            lru.clear();
+        }
+    }
+
+    /**
+     * Resolves a template from a path relative to the template base, e.g. "com/example/views/page.mustache". Relative
+     * child resources of the returned template are resolved against the template folder, same as they would be for a
+     * template resolved for a view class located in the matching package. Unlike
+     * {@link #resolve(String, Class)}, does not cache the resolved template.
+     *
+     * @since 4.0
+     */
+    public Template resolveByPath(String templatePath) {
+        String normalized = templatePath.startsWith("/") ? templatePath.substring(1) : templatePath;
+        int slash = normalized.lastIndexOf('/');
+
+        String path = slash >= 0 ? normalized.substring(0, slash + 1) : "";
+        String name = normalized.substring(slash + 1);
+        return new DefaultTemplate(
+                templateBase,
+                path,
+                name,
+                templateEncoding,
+                onFailedUrl,
+                onFailedReader,
+                sourceStore);
     }
 
     private Template createTemplate(String templateName, Package pkg) {
+        return createTemplate(templateName, pkg, null);
+    }
+
+    private Template createTemplate(String templateName, Package pkg, String namespace) {
         String path = pkg != null ? pkg.getName().replace('.', '/') + "/" : "";
-        return new DefaultTemplate(templateBase, path, templateName, templateEncoding, onFailedUrl, onFailedReader);
+        return new DefaultTemplate(
+                templateBase,
+                path,
+                templateName,
+                templateEncoding,
+                onFailedUrl,
+                onFailedReader,
+                sourceStore,
+                namespace);
+    }
+
+    /**
+     * Returns the first path segment of the template name, or null if the name has no path segments.
+     */
+    static String namespaceFromName(String templateName) {
+        int start = templateName.startsWith("/") ? 1 : 0;
+        int slash = templateName.indexOf('/', start);
+        return slash > start ? templateName.substring(start, slash) : null;
+    }
+
+    /**
+     * Tracks resolved templates of a single namespace, evicting the oldest ones when the quota is exceeded. FIFO order
+     * is good enough here, as an evicted template is cheap to recreate, and its compiled form is cached separately.
+     * The namespace "last used" time is updated on every lookup, including the lookups of the already resolved
+     * templates, so that the namespaces that are in use are not evicted when the namespace limit is exceeded.
+     */
+    private static class Namespace {
+
+        // limits the frequency of the writes to "lastUsed" shared by all the threads using the namespace
+        private static final long TOUCH_INTERVAL_NANOS = 1_000_000_000L;
+
+        private final String name;
+        private final int limit;
+        private final AtomicInteger size;
+        private final Queue<Admitted> admitted;
+        private final LongSupplier clock;
+
+        // templates of the views that provide the namespace explicitly
+        private final ConcurrentMap<Class<?>, ConcurrentMap<String, Template>> templatesByViewType;
+
+        private volatile long lastUsed;
+        private volatile boolean removed;
+
+        Namespace(String name, int limit, LongSupplier clock) {
+            this.name = name;
+            this.limit = limit;
+            this.size = new AtomicInteger();
+            this.admitted = new ConcurrentLinkedQueue<>();
+            this.clock = clock;
+            this.templatesByViewType = new ConcurrentHashMap<>();
+            this.lastUsed = clock.getAsLong();
+        }
+
+        ConcurrentMap<String, Template> templates(Class<?> viewType) {
+            ConcurrentMap<String, Template> templates = templatesByViewType.get(viewType);
+            return templates != null
+                    ? templates
+                    : templatesByViewType.computeIfAbsent(viewType, t -> new ConcurrentHashMap<>());
+        }
+
+        void touch() {
+            long now = clock.getAsLong();
+            if (now - lastUsed > TOUCH_INTERVAL_NANOS) {
+                lastUsed = now;
+            }
+        }
+
+        void admit(ConcurrentMap<String, Template> templates, String name, Template template) {
+            admitted.add(new Admitted(templates, name, template));
+
+            if (size.incrementAndGet() > limit) {
+                Admitted oldest = admitted.poll();
+                if (oldest != null) {
+                    oldest.remove();
+                    size.decrementAndGet();
+                }
+            }
+
+            // raced with the namespace eviction
+            if (removed) {
+                clear();
+            }
+        }
+
+        void clear() {
+            removed = true;
+
+            Admitted a;
+            while ((a = admitted.poll()) != null) {
+                a.remove();
+            }
+
+            templatesByViewType.clear();
+        }
+    }
+
+    private static class Admitted {
+
+        final ConcurrentMap<String, Template> templates;
+        final String name;
+        final Template template;
+
+        Admitted(ConcurrentMap<String, Template> templates, String name, Template template) {
+            this.templates = templates;
+            this.name = name;
+            this.template = template;
+        }
+
+        void remove() {
+            templates.remove(name, template);
+        }
     }
 }
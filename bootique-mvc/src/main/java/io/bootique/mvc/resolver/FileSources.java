@@ -0,0 +1,126 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.resolver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and decodes template files in one go, with no intermediate streams. Files smaller than
+ * {@link #POOLED_BUFFER_SIZE} are read into a per-thread buffer, larger ones - into a buffer allocated for the read.
+ * Decoders are reused per thread as well, so for most templates the only garbage produced is the resulting char
+ * buffer. Malformed input is replaced, same as {@link java.io.InputStreamReader} does.
+ *
+ * <p>Each thread that reads templates retains a {@link #POOLED_BUFFER_SIZE} byte buffer for as long as the thread is
+ * alive. Files are not memory-mapped, as a mapped file truncated while being read crashes the read with an
+ * {@link InternalError}, and on Windows the mapping keeps the file locked until garbage-collected.</p>
+ *
+ * @since 4.0
+ */
+class FileSources {
+
+    static final int POOLED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * Returns the decoded file contents in a buffer flipped for reading and backed by an accessible array.
+     */
+    static CharBuffer read(Path path, Charset encoding) throws IOException {
+
+        Buffers buffers = BUFFERS.get();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Template file is too large: " + path);
+            }
+
+            return decode(buffers.read(channel, (int) size), buffers.decoder(encoding));
+        }
+    }
+
+    private static CharBuffer decode(ByteBuffer bytes, CharsetDecoder decoder) throws IOException {
+
+        CharBuffer chars = CharBuffer.allocate((int) (bytes.remaining() * (double) decoder.maxCharsPerByte()) + 1);
+
+        // the decoder must see the end of input (even if empty) before it can be flushed
+        boolean inputDone = false;
+
+        while (true) {
+            CoderResult result = inputDone ? CoderResult.UNDERFLOW : decoder.decode(bytes, chars, true);
+            if (result.isUnderflow()) {
+                inputDone = true;
+                result = decoder.flush(chars);
+            }
+
+            if (result.isUnderflow()) {
+                return chars.flip();
+            }
+
+            if (result.isOverflow()) {
+                CharBuffer larger = CharBuffer.allocate(chars.capacity() * 2);
+                chars = larger.put(chars.flip());
+                continue;
+            }
+
+            result.throwException();
+        }
+    }
+
+    private static class Buffers {
+
+        private final ByteBuffer bytes = ByteBuffer.allocate(POOLED_BUFFER_SIZE);
+        private CharsetDecoder decoder;
+
+        ByteBuffer read(FileChannel channel, int size) throws IOException {
+
+            // leaving room for one more byte, so that an unchanged file is read fully without growing the buffer.
+            // The file may be changing while we are reading it, so reading till the end regardless of the size
+            ByteBuffer buffer = size < bytes.capacity() ? bytes.clear() : ByteBuffer.allocate(size + 1);
+
+            while (channel.read(buffer) >= 0) {
+                if (!buffer.hasRemaining()) {
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+                }
+            }
+
+            return buffer.flip();
+        }
+
+        CharsetDecoder decoder(Charset encoding) {
+            if (decoder == null || !decoder.charset().equals(encoding)) {
+                decoder = encoding.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            }
+
+            return decoder.reset();
+        }
+    }
+}
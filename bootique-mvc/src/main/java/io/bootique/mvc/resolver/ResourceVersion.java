@@ -0,0 +1,116 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.resolver;
+
+import java.net.HttpURLConnection;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.jar.JarEntry;
+
+/**
+ * Calculates cheap version tokens of template resources without reading them. Files are versioned by their
+ * modification time and size (except for the recently modified files), jar entries - by their checksum and size (both
+ * stored in the jar directory), and other HTTP URLs - by the "ETag" or "Last-Modified" headers.
+ *
+ * @since 4.0
+ */
+class ResourceVersion {
+
+    // A file may change again within the file system timestamp granularity (up to 2 sec. on some file systems) without
+    // its modification time and size changing. So the files modified recently are not versioned (same as the "racy
+    // git" rule), and the caches would reload them until they become old enough
+    static final long FILE_SAFETY_WINDOW_MS = 3_000;
+
+    /**
+     * Returns a version token for the resource at the URL, or null if the version can not be determined.
+     */
+    static Object of(URL url) {
+
+        try {
+            switch (url.getProtocol()) {
+                case "file":
+                    return ofFile(Paths.get(url.toURI()));
+                case "jar":
+                    return ofJarEntry(url);
+                default:
+                    return ofConnection(url);
+            }
+        } catch (Exception e) {
+            // the caller would reload the template and report the actual error if there's any
+            return null;
+        }
+    }
+
+    private static Object ofFile(Path path) throws Exception {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        FileTime modified = attributes.lastModifiedTime();
+
+        // also covers the modification times in the future
+        if (System.currentTimeMillis() - modified.toMillis() < FILE_SAFETY_WINDOW_MS) {
+            return null;
+        }
+
+        return List.of(modified, attributes.size());
+    }
+
+    private static Object ofJarEntry(URL url) throws Exception {
+        JarEntry entry = ((JarURLConnection) url.openConnection()).getJarEntry();
+        if (entry == null || entry.getCrc() < 0) {
+            return null;
+        }
+
+        return List.of(entry.getCrc(), entry.getSize());
+    }
+
+    private static Object ofConnection(URL url) throws Exception {
+
+        URLConnection connection = url.openConnection();
+
+        // only checking HTTP, as other connection types may need to be read to get their headers
+        if (!(connection instanceof HttpURLConnection)) {
+            return null;
+        }
+
+        HttpURLConnection httpConnection = (HttpURLConnection) connection;
+        httpConnection.setRequestMethod("HEAD");
+
+        try {
+            if (httpConnection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                return null;
+            }
+
+            String etag = httpConnection.getHeaderField("ETag");
+            if (etag != null) {
+                return etag;
+            }
+
+            long lastModified = httpConnection.getLastModified();
+            return lastModified > 0 ? lastModified : null;
+        } finally {
+            httpConnection.disconnect();
+        }
+    }
+}
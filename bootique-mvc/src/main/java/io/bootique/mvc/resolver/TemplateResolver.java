@@ -25,4 +25,14 @@ public interface TemplateResolver {
 
 	Template resolve(String templateName, Class<?> viewType);
 
+	/**
+	 * Resolves a template within the specified namespace (e.g. a tenant key). If the namespace is null, the resolver
+	 * may derive it from the template name. The default implementation ignores the namespace.
+	 *
+	 * @since 4.0
+	 */
+	default Template resolve(String templateName, String namespace, Class<?> viewType) {
+		return resolve(templateName, viewType);
+	}
+
 }
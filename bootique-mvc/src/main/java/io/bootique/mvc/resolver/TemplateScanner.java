@@ -0,0 +1,128 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.resolver;
+
+import io.bootique.BootiqueException;
+import io.bootique.resource.FolderResourceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Finds all the templates with known extensions under a template base. Scanning is supported for file system folders
+ * and folders within jars.
+ *
+ * @since 4.0
+ */
+public class TemplateScanner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TemplateScanner.class);
+
+    /**
+     * Returns the paths (relative to the template base) of the templates with the specified extensions (each
+     * including the leading dot) found under the template base.
+     */
+    public static List<String> scan(FolderResourceFactory templateBase, Set<String> extensions) {
+
+        List<String> paths = new ArrayList<>();
+
+        URL templateBaseUrl = templateBase.getUrl();
+        switch (templateBaseUrl.getProtocol()) {
+            case "file":
+                scanFolder(templateBaseUrl, paths, extensions);
+                break;
+            case "jar":
+                scanJar(templateBaseUrl, paths, extensions);
+                break;
+            default:
+                LOGGER.warn("Can't scan templates in '{}', only files and jars are supported", templateBaseUrl);
+                break;
+        }
+
+        return paths;
+    }
+
+    private static void scanFolder(URL templateBaseUrl, List<String> paths, Set<String> extensions) {
+
+        Path root;
+        try {
+            root = Paths.get(templateBaseUrl.toURI());
+        } catch (URISyntaxException e) {
+            throw new BootiqueException(1, "Invalid template base URL: " + templateBaseUrl, e);
+        }
+
+        if (!Files.isDirectory(root)) {
+            LOGGER.warn("Template base folder does not exist: {}", root);
+            return;
+        }
+
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile)
+                    .map(p -> root.relativize(p).toString().replace('\\', '/'))
+                    .filter(p -> hasExtension(p, extensions))
+                    .sorted()
+                    .forEach(paths::add);
+        } catch (IOException | UncheckedIOException e) {
+            throw new BootiqueException(1, "Error scanning templates folder: " + root, e);
+        }
+    }
+
+    private static void scanJar(URL templateBaseUrl, List<String> paths, Set<String> extensions) {
+
+        try {
+            JarURLConnection connection = (JarURLConnection) templateBaseUrl.openConnection();
+            String prefix = connection.getEntryName() != null ? connection.getEntryName() : "";
+            if (!prefix.isEmpty() && !prefix.endsWith("/")) {
+                prefix = prefix + "/";
+            }
+
+            JarFile jar = connection.getJarFile();
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (!entry.isDirectory() && name.startsWith(prefix) && hasExtension(name, extensions)) {
+                    paths.add(name.substring(prefix.length()));
+                }
+            }
+        } catch (IOException e) {
+            throw new BootiqueException(1, "Error scanning templates jar: " + templateBaseUrl, e);
+        }
+    }
+
+    private static boolean hasExtension(String path, Set<String> extensions) {
+        int dot = path.lastIndexOf('.');
+        return dot > 0 && extensions.contains(path.substring(dot));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.resolver;
+
+import io.bootique.BootiqueException;
+import io.bootique.resource.FolderResourceFactory;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An immutable in-memory store of decoded template sources. Loaded once on startup from all the templates with known
+ * extensions under the template base, it allows to recompile templates without reopening and decoding their
+ * resources, which is especially slow for templates packaged in jars. Intended for template bases whose contents
+ * don't change at runtime, such as "classpath:".
+ *
+ * @since 4.0
+ */
+public class TemplateSourceStore {
+
+    private static final AtomicLong STORE_COUNTER = new AtomicLong();
+
+    private final Map<String, char[]> sources;
+
+    // the stored sources never change, so a single token unique to this store versions all of them
+    private final Long version;
+
+    private TemplateSourceStore(Map<String, char[]> sources) {
+        this.sources = sources;
+        this.version = STORE_COUNTER.incrementAndGet();
+    }
+
+    /**
+     * Loads and decodes all the templates with the specified extensions (each including the leading dot) found under
+     * the template base.
+     */
+    public static TemplateSourceStore load(FolderResourceFactory templateBase, Charset encoding, Set<String> extensions) {
+
+        Map<String, char[]> sources = new HashMap<>();
+
+        for (String path : TemplateScanner.scan(templateBase, extensions)) {
+            URL url = templateBase.getUrl(path);
+            sources.put(url.toExternalForm(), read(url, encoding));
+        }
+
+        return new TemplateSourceStore(sources);
+    }
+
+    private static char[] read(URL url, Charset encoding) {
+
+        try {
+            if ("file".equals(url.getProtocol())) {
+                CharBuffer chars = FileSources.read(Paths.get(url.toURI()), encoding);
+
+                // trim to size to keep the store compact
+                return Arrays.copyOf(chars.array(), chars.limit());
+            }
+
+            return readStream(url, encoding);
+        } catch (IOException | URISyntaxException e) {
+            throw new BootiqueException(1, "Error loading template: " + url, e);
+        }
+    }
+
+    private static char[] readStream(URL url, Charset encoding) throws IOException {
+
+        char[] buffer = new char[4096];
+        int length = 0;
+
+        try (Reader in = new InputStreamReader(url.openStream(), encoding)) {
+            int read;
+            while ((read = in.read(buffer, length, buffer.length - length)) >= 0) {
+                length += read;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+        }
+
+        // trim to size to keep the store compact
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Returns a reader of the stored template source, or null if the URL is not in the store.
+     */
+    public Reader reader(URL url) {
+        char[] source = sources.get(url.toExternalForm());
+        return source != null ? new CharArrayReader(source) : null;
+    }
+
+    /**
+     * Returns a version token of the stored template source, or null if the URL is not in the store. As the stored
+     * sources never change, the token is the same for the lifetime of the store.
+     */
+    public Object getVersion(URL url) {
+        return sources.containsKey(url.toExternalForm()) ? version : null;
+    }
+
+    public int size() {
+        return sources.size();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.mvc.warmup;
+
+import io.bootique.mvc.resolver.TemplateScanner;
+import io.bootique.resource.FolderResourceFactory;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds a list of template paths (relative to the template base) to warm up. Combines explicitly configured paths
+ * with the templates found by scanning the template base, if scanning is enabled.
+ *
+ * @see TemplateScanner
+ * @since 4.0
+ */
+public class TemplateLocator {
+
+    private final FolderResourceFactory templateBase;
+    private final List<String> templates;
+    private final boolean scan;
+
+    public TemplateLocator(FolderResourceFactory templateBase, List<String> templates, boolean scan) {
+        this.templateBase = templateBase;
+        this.templates = templates;
+        this.scan = scan;
+    }
+
+    public Collection<String> locate(Set<String> extensions) {
+
+        Set<String> paths = new LinkedHashSet<>();
+
+        for (String t : templates) {
+            paths.add(t.startsWith("/") ? t.substring(1) : t);
+        }
+
+        if (scan) {
+            paths.addAll(TemplateScanner.scan(templateBase, extensions));
+        }
+
+        return paths;
+    }
+}
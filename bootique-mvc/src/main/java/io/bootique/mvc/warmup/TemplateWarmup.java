@@ -0,0 +1,198 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.mvc.warmup;
+
+import io.bootique.BootiqueException;
+import io.bootique.mvc.Template;
+import io.bootique.mvc.renderer.TemplateRenderer;
+import io.bootique.mvc.resolver.DefaultTemplateResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves and compiles a set of templates on startup, so that the first requests after the app start do not pay
+ * the template compilation cost. Templates can be compiled concurrently on a bounded pool of threads. Compilation
+ * of each template happens entirely on a single thread, so thread-bound state of template engines (like Mustache
+ * compilation context) is preserved. If any of the templates fail, no new templates are started, and an exception
+ * is thrown reporting all the failures.
+ *
+ * @since 4.0
+ */
+public class TemplateWarmup {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TemplateWarmup.class);
+
+    private final DefaultTemplateResolver resolver;
+    private final Map<String, TemplateRenderer> renderersByExtension;
+    private final TemplateLocator locator;
+    private final int threads;
+
+    public TemplateWarmup(
+            DefaultTemplateResolver resolver,
+            Map<String, TemplateRenderer> renderersByExtension,
+            TemplateLocator locator,
+            int threads) {
+
+        if (threads < 1) {
+            throw new IllegalArgumentException("Warmup threads number must be positive: " + threads);
+        }
+
+        this.resolver = resolver;
+        this.renderersByExtension = renderersByExtension;
+        this.locator = locator;
+        this.threads = threads;
+    }
+
+    public void warmUp() {
+
+        long t0 = System.currentTimeMillis();
+
+        Collection<String> paths = locator.locate(renderersByExtension.keySet());
+        if (paths.isEmpty()) {
+            return;
+        }
+
+        int threads = Math.min(this.threads, paths.size());
+        LOGGER.info("Warming up {} template(s) using {} thread(s)...", paths.size(), threads);
+
+        Queue<Failure> failures = new ConcurrentLinkedQueue<>();
+        if (threads > 1) {
+            warmUpParallel(paths, threads, failures);
+        } else {
+            warmUpSerial(paths, failures);
+        }
+
+        if (!failures.isEmpty()) {
+            throw failuresException(failures);
+        }
+
+        LOGGER.info("Warmed up {} template(s) in {} ms", paths.size(), System.currentTimeMillis() - t0);
+    }
+
+    private void warmUpSerial(Collection<String> paths, Queue<Failure> failures) {
+        for (String path : paths) {
+            if (!warmUp(path, failures)) {
+                return;
+            }
+        }
+    }
+
+    private void warmUpParallel(Collection<String> paths, int threads, Queue<Failure> failures) {
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "bootique-mvc-warmup-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            List<Future<?>> futures = new ArrayList<>(paths.size());
+            for (String path : paths) {
+                futures.add(executor.submit(() -> {
+
+                    // fail fast: once something failed, skip the templates that haven't started yet
+                    if (failures.isEmpty()) {
+                        warmUp(path, failures);
+                    }
+                }));
+            }
+
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BootiqueException(1, "Interrupted while warming up templates", e);
+        } catch (ExecutionException e) {
+            // "warmUp(..)" catches all exceptions, so this is unexpected
+            throw new BootiqueException(1, "Unexpected error warming up templates", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Compiles a single template, returning false and recording the failure if the template failed.
+     */
+    protected boolean warmUp(String path, Queue<Failure> failures) {
+
+        long t0 = System.currentTimeMillis();
+
+        try {
+            Template template = resolver.resolveByPath(path);
+            renderer(path).warmUp(template);
+        } catch (Exception e) {
+            failures.add(new Failure(path, e));
+            return false;
+        }
+
+        LOGGER.debug("Warmed up template '{}' in {} ms", path, System.currentTimeMillis() - t0);
+        return true;
+    }
+
+    private TemplateRenderer renderer(String path) {
+
+        int dot = path.lastIndexOf('.');
+        TemplateRenderer renderer = dot > 0 ? renderersByExtension.get(path.substring(dot)) : null;
+        if (renderer == null) {
+            throw new IllegalArgumentException("No renderer for template, supported extensions: "
+                    + renderersByExtension.keySet());
+        }
+
+        return renderer;
+    }
+
+    private static BootiqueException failuresException(Collection<Failure> failures) {
+
+        StringBuilder message = new StringBuilder("Failed to warm up ").append(failures.size()).append(" template(s):");
+        for (Failure f : failures) {
+            message.append("\n  ").append(f.path).append(": ").append(f.cause.getMessage());
+        }
+
+        Failure first = failures.iterator().next();
+        BootiqueException e = new BootiqueException(1, message.toString(), first.cause);
+        failures.stream().skip(1).forEach(f -> e.addSuppressed(f.cause));
+        return e;
+    }
+
+    protected static class Failure {
+
+        final String path;
+        final Exception cause;
+
+        Failure(String path, Exception cause) {
+            this.path = path;
+            this.cause = cause;
+        }
+    }
+}
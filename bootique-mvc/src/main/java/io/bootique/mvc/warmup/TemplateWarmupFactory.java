@@ -0,0 +1,81 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.mvc.warmup;
+
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.mvc.renderer.TemplateRenderer;
+import io.bootique.mvc.resolver.DefaultTemplateResolver;
+import io.bootique.resource.FolderResourceFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @since 4.0
+ */
+@BQConfig("Configures template compilation on startup")
+public class TemplateWarmupFactory {
+
+    private List<String> templates;
+    private Boolean scan;
+    private Integer threads;
+
+    public TemplateWarmup createWarmup(
+            FolderResourceFactory templateBase,
+            DefaultTemplateResolver resolver,
+            Map<String, TemplateRenderer> renderersByExtension) {
+
+        List<String> templates = this.templates != null ? this.templates : List.of();
+        boolean scan = this.scan != null ? this.scan : false;
+        int threads = this.threads != null ? this.threads : 1;
+
+        return new TemplateWarmup(
+                resolver,
+                renderersByExtension,
+                new TemplateLocator(templateBase, templates, scan),
+                threads);
+    }
+
+    /**
+     * Returns whether there are any templates to compile, i.e. either the template list or scanning is configured.
+     */
+    public boolean isEnabled() {
+        return (templates != null && !templates.isEmpty()) || Boolean.TRUE.equals(scan);
+    }
+
+    @BQConfigProperty("A list of template paths relative to the 'templateBase' to compile on startup, e.g. " +
+            "'com/example/views/page.mustache'.")
+    public void setTemplates(List<String> templates) {
+        this.templates = templates;
+    }
+
+    @BQConfigProperty("If set to 'true', all templates with known extensions found under the 'templateBase' are " +
+            "compiled on startup. Scanning works for file system and classpath (including jars) template bases.")
+    public void setScan(Boolean scan) {
+        this.scan = scan;
+    }
+
+    @BQConfigProperty("The number of threads to use for template compilation. The default is 1, i.e. templates are " +
+            "compiled sequentially on the startup thread.")
+    public void setThreads(Integer threads) {
+        this.threads = threads;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EncodingWriterTest {
+
+    @Test
+    public void write_String() throws IOException {
+        assertEncoded("abc", StandardCharsets.UTF_8, 1024);
+        assertEncoded("abcdefghijklmnopqrstuvwxyz", StandardCharsets.UTF_8, 4);
+    }
+
+    @Test
+    public void write_Multibyte() throws IOException {
+        assertEncoded("ÀÉÎÕÜ ∑∂ 日本語", StandardCharsets.UTF_8, 3);
+        assertEncoded("ÀÉÎÕÜ", StandardCharsets.ISO_8859_1, 2);
+    }
+
+    @Test
+    public void write_SurrogatePairsAcrossBufferBoundary() throws IOException {
+        // emoji are encoded as surrogate pairs in Java strings
+        assertEncoded("a😀b😀c😀", StandardCharsets.UTF_8, 2);
+    }
+
+    @Test
+    public void write_SurrogatePairs_MinBuffer() throws IOException {
+        assertEncoded("😀😀a😀", StandardCharsets.UTF_8, EncodingWriter.MIN_BUFFER_SIZE);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EncodingWriter writer = new EncodingWriter(EncodingWriter.MIN_BUFFER_SIZE).reset(out, StandardCharsets.UTF_8);
+
+        writer.write("😀😀".toCharArray());
+        for (char c : "😀b😀".toCharArray()) {
+            writer.write(c);
+        }
+        writer.finish();
+
+        assertEquals("😀😀😀b😀", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void bufferTooSmall() {
+        assertThrows(IllegalArgumentException.class, () -> new EncodingWriter(1));
+        assertThrows(IllegalArgumentException.class, () -> new EncodingWriterPool(1, 1));
+    }
+
+    @Test
+    public void write_Chars() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EncodingWriter writer = new EncodingWriter(3).reset(out, StandardCharsets.UTF_8);
+
+        writer.write("xyz∑".toCharArray());
+        writer.write('!');
+        writer.finish();
+
+        assertEquals("xyz∑!", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void reset_Reuse() throws IOException {
+        EncodingWriter writer = new EncodingWriter(4);
+
+        ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+        writer.reset(out1, StandardCharsets.UTF_8);
+        writer.write("∑∑∑∑∑");
+        writer.finish();
+        writer.release();
+
+        ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+        writer.reset(out2, StandardCharsets.UTF_16BE);
+        writer.write("∑a");
+        writer.finish();
+
+        assertEquals("∑∑∑∑∑", out1.toString(StandardCharsets.UTF_8));
+        assertEquals("∑a", out2.toString(StandardCharsets.UTF_16BE));
+    }
+
+    private static void assertEncoded(String string, Charset encoding, int bufferSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EncodingWriter writer = new EncodingWriter(bufferSize).reset(out, encoding);
+        writer.write(string);
+        writer.finish();
+
+        assertEquals(string, out.toString(encoding));
+    }
+
+    @Test
+    public void buffered() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EncodingWriter writer = new EncodingWriter(4).reset(out, StandardCharsets.UTF_8, 100);
+
+        writer.write("abc∑abc∑abc∑");
+        writer.flush();
+        writer.endInput();
+
+        assertEquals(0, out.size(), "Nothing must be written to the stream before 'finish'");
+        assertEquals(18, writer.getBufferedSize());
+
+        writer.finish();
+        assertEquals("abc∑abc∑abc∑", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void buffered_OverMaxSize() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EncodingWriter writer = new EncodingWriter(4).reset(out, StandardCharsets.UTF_8, 10);
+
+        writer.write("abcdefghijklmnopqrstuvwxyz");
+        writer.endInput();
+        assertEquals(-1, writer.getBufferedSize());
+
+        writer.finish();
+        assertEquals("abcdefghijklmnopqrstuvwxyz", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void buffered_OverMaxSize_WithinInitialCapacity() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EncodingWriter writer = new EncodingWriter(64).reset(out, StandardCharsets.UTF_8, 10);
+
+        writer.write("abcdefghijklmnopqrstuvwxyz");
+        writer.endInput();
+        assertEquals(-1, writer.getBufferedSize());
+
+        writer.finish();
+        assertEquals("abcdefghijklmnopqrstuvwxyz", out.toString(StandardCharsets.UTF_8));
+    }
+}
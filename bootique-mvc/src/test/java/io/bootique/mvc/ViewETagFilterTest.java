@@ -0,0 +1,51 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ViewETagFilterTest {
+
+    @Test
+    public void matches() {
+        assertFalse(ViewETagFilter.matches(null, "\"abc\""));
+        assertFalse(ViewETagFilter.matches("\"abd\"", "\"abc\""));
+
+        assertTrue(ViewETagFilter.matches("\"abc\"", "\"abc\""));
+        assertTrue(ViewETagFilter.matches("W/\"abc\"", "\"abc\""));
+        assertTrue(ViewETagFilter.matches("\"xyz\", \"abc\"", "\"abc\""));
+        assertTrue(ViewETagFilter.matches("*", "\"abc\""));
+    }
+
+    @Test
+    public void eTag() {
+        ViewETagFilter filter = new ViewETagFilter(null);
+
+        // the digest is reused across calls
+        assertEquals("\"1B2M2Y8AsgTpgAmY7PhCfg\"", filter.eTag(new byte[0]));
+        assertEquals("\"XUFAKrxLKna5cZ2REBfFkg\"", filter.eTag("hello".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("\"1B2M2Y8AsgTpgAmY7PhCfg\"", filter.eTag(new byte[0]));
+    }
+}
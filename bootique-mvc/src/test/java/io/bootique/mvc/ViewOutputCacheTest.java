@@ -0,0 +1,88 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ViewOutputCacheTest {
+
+    @Test
+    public void getPut() {
+        ViewOutputCache cache = new ViewOutputCache(10);
+
+        V1 v = new V1("t1");
+        assertNull(cache.get(v, 1));
+
+        byte[] bytes = {1, 2, 3};
+        cache.put(v, 1, bytes, 100_000);
+        assertSame(bytes, cache.get(v, 1));
+        assertSame(bytes, cache.get(new V1("t1"), 1));
+
+        assertNull(cache.get(v, 2));
+        assertNull(cache.get(new V1("t2"), 1), "Template name must be a part of the key");
+        assertNull(cache.get(new V2("t1"), 1), "View class must be a part of the key");
+    }
+
+    @Test
+    public void expiration() throws InterruptedException {
+        ViewOutputCache cache = new ViewOutputCache(10);
+
+        V1 v = new V1("t1");
+        cache.put(v, 1, new byte[]{1}, 10);
+        assertNotNull(cache.get(v, 1));
+
+        Thread.sleep(15);
+        assertNull(cache.get(v, 1));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void maxSize() {
+        ViewOutputCache cache = new ViewOutputCache(2);
+
+        V1 v = new V1("t1");
+        cache.put(v, 1, new byte[]{1}, 100_000);
+        cache.put(v, 2, new byte[]{2}, 100_000);
+
+        // touch "1", so that "2" becomes the eldest
+        assertNotNull(cache.get(v, 1));
+
+        cache.put(v, 3, new byte[]{3}, 100_000);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(v, 1));
+        assertNull(cache.get(v, 2));
+        assertNotNull(cache.get(v, 3));
+    }
+
+    static class V1 extends AbstractView {
+        V1(String templateName) {
+            super(templateName, StandardCharsets.UTF_8);
+        }
+    }
+
+    static class V2 extends AbstractView {
+        V2(String templateName) {
+            super(templateName, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+import org.junit.jupiter.api.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedTtlCacheTest {
+
+    @Test
+    public void maxSize() throws MalformedURLException {
+
+        BoundedTtlCache cache = new BoundedTtlCache(100_000, 10);
+
+        for (int i = 0; i < 100; i++) {
+            Template t = template("t" + i);
+            assertEquals("/tmp/t" + i, cache.get(t, tt -> tt.getUrl().getPath()));
+            assertTrue(cache.size() <= 10, () -> "Cache has grown past its max size: " + cache.size());
+        }
+    }
+
+    @Test
+    public void frequentlyUsedEntriesSurvive() throws MalformedURLException {
+
+        BoundedTtlCache cache = new BoundedTtlCache(100_000, 10);
+
+        Template hot = template("hot");
+        AtomicInteger hotCompiles = new AtomicInteger(0);
+
+        for (int i = 0; i < 5; i++) {
+            cache.get(hot, t -> hotCompiles.incrementAndGet());
+        }
+
+        // a scan of one-off templates should not push out a popular template
+        for (int i = 0; i < 100; i++) {
+            cache.get(template("cold" + i), t -> "x");
+            cache.get(hot, t -> hotCompiles.incrementAndGet());
+        }
+
+        assertEquals(1, hotCompiles.get());
+    }
+
+    @Test
+    public void maxSize_One() throws MalformedURLException {
+
+        BoundedTtlCache cache = new BoundedTtlCache(100_000, 1);
+
+        assertEquals("a", cache.get(template("a"), t -> "a"));
+        assertEquals("b", cache.get(template("b"), t -> "b"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void ttl() throws MalformedURLException {
+
+        AtomicLong clock = new AtomicLong();
+        BoundedTtlCache cache = new BoundedTtlCache(20, 10, null, 0, clock::get);
+        Template t = template("t");
+
+        AtomicInteger compiles = new AtomicInteger(0);
+        cache.get(t, tt -> compiles.incrementAndGet());
+        cache.get(t, tt -> compiles.incrementAndGet());
+        assertEquals(1, compiles.get());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(25));
+        cache.get(t, tt -> compiles.incrementAndGet());
+        assertEquals(2, compiles.get());
+    }
+
+    private static Template template(String name) throws MalformedURLException {
+        return new TtlCacheTest.TestTemplate(new URL("file:/tmp/" + name));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ByExtensionTemplateRenderersTest {
+
+    private static final TemplateRenderer MUSTACHE = (out, template, model) -> {
+    };
+    private static final TemplateRenderer FTL = (out, template, model) -> {
+    };
+
+    private final ByExtensionTemplateRenderers renderers = new ByExtensionTemplateRenderers(Map.of(
+            ".mustache", MUSTACHE,
+            ".ftl", FTL));
+
+    @Test
+    public void getRenderer() throws MalformedURLException {
+        assertSame(MUSTACHE, renderers.getRenderer(template("a.mustache")));
+        assertSame(MUSTACHE, renderers.getRenderer(template("x/a.b.mustache")));
+        assertSame(FTL, renderers.getRenderer(template("a.ftl")));
+    }
+
+    @Test
+    public void getRenderer_Unsupported() {
+        assertThrows(IllegalArgumentException.class, () -> renderers.getRenderer(template("a.ftlx")));
+        assertThrows(IllegalArgumentException.class, () -> renderers.getRenderer(template("a.tl")));
+        assertThrows(IllegalArgumentException.class, () -> renderers.getRenderer(template("a")));
+        assertThrows(IllegalArgumentException.class, () -> renderers.getRenderer(template("a.")));
+        assertThrows(IllegalArgumentException.class, () -> renderers.getRenderer(template(".ftl")));
+    }
+
+    private static NamedTemplate template(String name) throws MalformedURLException {
+        return new NamedTemplate(name);
+    }
+
+    static class NamedTemplate extends TtlCacheTest.TestTemplate {
+
+        final String name;
+
+        NamedTemplate(String name) throws MalformedURLException {
+            super(new URL("file:/tmp/" + name));
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+import org.junit.jupiter.api.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ListeningTemplateCacheTest {
+
+    @Test
+    public void hitsAndMisses() throws MalformedURLException {
+
+        RecordingListener listener = new RecordingListener();
+        RenderableTemplateCache cache = RenderableTemplateCache.withListeners(
+                RenderableTemplateCache.of(Duration.ofMinutes(1)),
+                Set.of(listener));
+
+        Template t1 = new TtlCacheTest.TestTemplate(new URL("file:/tmp/t1.txt"));
+        Template t2 = new TtlCacheTest.TestTemplate(new URL("file:/tmp/t2.txt"));
+
+        cache.get(t1, t -> "x");
+        cache.get(t1, t -> "x");
+        cache.get(t2, t -> "y");
+
+        assertEquals(List.of(
+                "miss:file:/tmp/t1.txt",
+                "compiled:file:/tmp/t1.txt",
+                "hit:file:/tmp/t1.txt",
+                "miss:file:/tmp/t2.txt",
+                "compiled:file:/tmp/t2.txt"), listener.events);
+    }
+
+    @Test
+    public void hitsAndMisses_Nested() throws MalformedURLException {
+
+        RecordingListener listener = new RecordingListener();
+        RenderableTemplateCache cache = RenderableTemplateCache.withListeners(
+                RenderableTemplateCache.of(Duration.ofMinutes(1)),
+                Set.of(listener));
+
+        Template parent1 = new TtlCacheTest.TestTemplate(new URL("file:/tmp/p1.txt"));
+        Template parent2 = new TtlCacheTest.TestTemplate(new URL("file:/tmp/p2.txt"));
+        Template child = new TtlCacheTest.TestTemplate(new URL("file:/tmp/c.txt"));
+
+        // the parent compilation looks up the child in the same cache
+        cache.get(parent1, t -> cache.get(child, c -> "c") + "p");
+        cache.get(parent2, t -> cache.get(child, c -> "c") + "p");
+
+        assertEquals(List.of(
+                "miss:file:/tmp/p1.txt",
+                "miss:file:/tmp/c.txt",
+                "compiled:file:/tmp/c.txt",
+                "compiled:file:/tmp/p1.txt",
+                "miss:file:/tmp/p2.txt",
+                "hit:file:/tmp/c.txt",
+                "compiled:file:/tmp/p2.txt"), listener.events);
+    }
+
+    @Test
+    public void hitsAndMisses_NewMakerPerCall() throws MalformedURLException {
+
+        RecordingListener listener = new RecordingListener();
+        RenderableTemplateCache cache = RenderableTemplateCache.withListeners(
+                RenderableTemplateCache.ofNoCache(),
+                Set.of(listener));
+
+        Template t1 = new TtlCacheTest.TestTemplate(new URL("file:/tmp/t1.txt"));
+
+        // each call must be compiled by its own maker
+        for (int i = 0; i < 50; i++) {
+            String value = "x" + i;
+            assertEquals(value, cache.get(t1, t -> value));
+        }
+
+        assertEquals(100, listener.events.size());
+    }
+
+    @Test
+    public void asyncRefresh() throws MalformedURLException {
+
+        List<Runnable> tasks = new ArrayList<>();
+        RecordingListener listener = new RecordingListener();
+        RenderableTemplateCache cache = RenderableTemplateCache.withListeners(
+                RenderableTemplateCache.builder(Duration.ZERO).asyncRefresh(tasks::add).build(),
+                Set.of(listener));
+
+        Template t1 = new TtlCacheTest.TestTemplate(new URL("file:/tmp/t1.txt"));
+
+        assertEquals("x1", cache.get(t1, t -> "x1"));
+        assertEquals("x1", cache.get(t1, t -> "x2"));
+        assertEquals(1, tasks.size());
+
+        // the refresh must use the maker of the call that started it, and is not a miss
+        tasks.get(0).run();
+        assertEquals("x2", cache.get(t1, t -> "x3"));
+
+        assertEquals(List.of(
+                "miss:file:/tmp/t1.txt",
+                "compiled:file:/tmp/t1.txt",
+                "hit:file:/tmp/t1.txt",
+                "compiled:file:/tmp/t1.txt",
+                "hit:file:/tmp/t1.txt"), listener.events);
+    }
+
+    @Test
+    public void compileFailed() throws MalformedURLException {
+
+        RecordingListener listener = new RecordingListener();
+        RenderableTemplateCache cache = RenderableTemplateCache.withListeners(
+                RenderableTemplateCache.ofNoCache(),
+                Set.of(listener));
+
+        Template t1 = new TtlCacheTest.TestTemplate(new URL("file:/tmp/t1.txt"));
+
+        assertThrows(IllegalStateException.class, () -> cache.get(t1, t -> {
+            throw new IllegalStateException("test");
+        }));
+
+        assertEquals(List.of("miss:file:/tmp/t1.txt", "failed:file:/tmp/t1.txt"), listener.events);
+    }
+
+    @Test
+    public void evictions() throws MalformedURLException {
+
+        RecordingListener listener = new RecordingListener();
+        RenderableTemplateCache cache = RenderableTemplateCache.withListeners(
+                RenderableTemplateCache.of(Duration.ofMinutes(1), 1),
+                Set.of(listener));
+
+        cache.get(new TtlCacheTest.TestTemplate(new URL("file:/tmp/t1.txt")), t -> "x");
+        cache.get(new TtlCacheTest.TestTemplate(new URL("file:/tmp/t2.txt")), t -> "y");
+
+        assertEquals(1, listener.events.stream().filter(e -> e.startsWith("evicted:")).count());
+    }
+
+    static class RecordingListener implements TemplateCacheListener {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onHit(Template template) {
+            events.add("hit:" + template.getUrl());
+        }
+
+        @Override
+        public void onMiss(Template template) {
+            events.add("miss:" + template.getUrl());
+        }
+
+        @Override
+        public void onEviction(String templateUrl) {
+            events.add("evicted:" + templateUrl);
+        }
+
+        @Override
+        public void onCompiled(Template template, long elapsedNanos) {
+            events.add("compiled:" + template.getUrl());
+        }
+
+        @Override
+        public void onCompileFailed(Template template, RuntimeException error) {
+            events.add("failed:" + template.getUrl());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NamespacedTemplateCacheTest {
+
+    @Test
+    public void get() throws MalformedURLException {
+
+        List<RoutingTemplateCacheTest.RecordingCache> created = new ArrayList<>();
+        RenderableTemplateCache cache = RenderableTemplateCache.ofNamespaces(
+                new RoutingTemplateCacheTest.RecordingCache("shared"),
+                10,
+                () -> {
+                    RoutingTemplateCacheTest.RecordingCache c = new RoutingTemplateCacheTest.RecordingCache(
+                            "ns" + created.size());
+                    created.add(c);
+                    return c;
+                });
+
+        assertEquals("shared", cache.get(new NamespacedTemplate("file:/tmp/a.txt", null), t -> ""));
+        assertEquals(0, created.size());
+
+        assertEquals("ns0", cache.get(new NamespacedTemplate("file:/tmp/a.txt", "a"), t -> ""));
+        assertEquals("ns1", cache.get(new NamespacedTemplate("file:/tmp/a.txt", "b"), t -> ""));
+        assertEquals("ns0", cache.get(new NamespacedTemplate("file:/tmp/b.txt", "a"), t -> ""));
+        assertEquals(2, created.size());
+    }
+
+    @Test
+    public void get_MaxNamespaces() throws MalformedURLException {
+
+        List<RoutingTemplateCacheTest.RecordingCache> created = new ArrayList<>();
+        RenderableTemplateCache cache = RenderableTemplateCache.ofNamespaces(
+                new RoutingTemplateCacheTest.RecordingCache("shared"),
+                2,
+                () -> {
+                    RoutingTemplateCacheTest.RecordingCache c = new RoutingTemplateCacheTest.RecordingCache(
+                            "ns" + created.size());
+                    created.add(c);
+                    return c;
+                });
+
+        cache.get(new NamespacedTemplate("file:/tmp/a.txt", "a"), t -> "");
+        cache.get(new NamespacedTemplate("file:/tmp/a.txt", "b"), t -> "");
+        assertFalse(created.get(0).closed);
+        assertFalse(created.get(1).closed);
+
+        // one of the older namespaces is evicted and closed
+        assertEquals("ns2", cache.get(new NamespacedTemplate("file:/tmp/a.txt", "c"), t -> ""));
+        assertTrue(created.get(0).closed ^ created.get(1).closed);
+        assertFalse(created.get(2).closed);
+    }
+
+    @Test
+    public void invalidate() throws MalformedURLException {
+
+        RoutingTemplateCacheTest.RecordingCache shared = new RoutingTemplateCacheTest.RecordingCache("shared");
+        RoutingTemplateCacheTest.RecordingCache ns = new RoutingTemplateCacheTest.RecordingCache("ns");
+        RenderableTemplateCache cache = RenderableTemplateCache.ofNamespaces(shared, 10, () -> ns);
+
+        cache.get(new NamespacedTemplate("file:/tmp/a.txt", "a"), t -> "");
+
+        URL url = new URL("file:/tmp/a.txt");
+        cache.invalidate(url);
+
+        assertEquals(List.of(url), shared.invalidated);
+        assertEquals(List.of(url), ns.invalidated);
+    }
+
+    @Test
+    public void close() throws MalformedURLException {
+
+        RoutingTemplateCacheTest.RecordingCache shared = new RoutingTemplateCacheTest.RecordingCache("shared");
+        RoutingTemplateCacheTest.RecordingCache ns = new RoutingTemplateCacheTest.RecordingCache("ns");
+        RenderableTemplateCache cache = RenderableTemplateCache.ofNamespaces(shared, 10, () -> ns);
+
+        cache.get(new NamespacedTemplate("file:/tmp/a.txt", "a"), t -> "");
+        cache.close();
+
+        assertTrue(shared.closed);
+        assertTrue(ns.closed);
+    }
+
+    static class NamespacedTemplate extends TtlCacheTest.TestTemplate {
+
+        final String namespace;
+
+        NamespacedTemplate(String url, String namespace) throws MalformedURLException {
+            super(new URL(url));
+            this.namespace = namespace;
+        }
+
+        @Override
+        public String getNamespace() {
+            return namespace;
+        }
+    }
+}
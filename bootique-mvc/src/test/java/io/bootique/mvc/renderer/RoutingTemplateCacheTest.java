@@ -0,0 +1,207 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+import io.bootique.mvc.resolver.DefaultTemplate;
+import io.bootique.resource.FolderResourceFactory;
+import org.junit.jupiter.api.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoutingTemplateCacheTest {
+
+    @Test
+    public void matches_Path() {
+        TemplateCacheRoute r = new TemplateCacheRoute("com/example/**", null, new RecordingCache("x"));
+
+        assertTrue(r.matches("com/example/a.mustache"));
+        assertTrue(r.matches("com/example/x/y/a.mustache"));
+        assertFalse(r.matches("com/other/a.mustache"));
+        assertFalse(r.matches("org/com/example/a.mustache"));
+    }
+
+    @Test
+    public void matches_PathSingleStar() {
+        TemplateCacheRoute r = new TemplateCacheRoute("/layouts/*.mustache", null, new RecordingCache("x"));
+
+        assertTrue(r.matches("layouts/a.mustache"));
+        assertFalse(r.matches("layouts/x/a.mustache"));
+        assertFalse(r.matches("layouts/a.html"));
+    }
+
+    @Test
+    public void matches_Extension() {
+        TemplateCacheRoute r1 = new TemplateCacheRoute(null, "html", new RecordingCache("x"));
+        assertTrue(r1.matches("a/b.html"));
+        assertFalse(r1.matches("a/b.mustache"));
+
+        TemplateCacheRoute r2 = new TemplateCacheRoute("a/**", ".html", new RecordingCache("x"));
+        assertTrue(r2.matches("a/b.html"));
+        assertFalse(r2.matches("a/b.mustache"));
+        assertFalse(r2.matches("c/b.html"));
+    }
+
+    @Test
+    public void get() throws MalformedURLException {
+
+        RecordingCache layouts = new RecordingCache("layouts");
+        RecordingCache html = new RecordingCache("html");
+        RecordingCache defaultCache = new RecordingCache("default");
+
+        RenderableTemplateCache cache = RenderableTemplateCache.ofRoutes(List.of(
+                new TemplateCacheRoute("layouts/**", null, layouts),
+                new TemplateCacheRoute(null, ".html", html)), defaultCache, new URL("file:/tmp/templates"));
+
+        assertEquals("layouts", get(cache, "file:/tmp/templates/layouts/a.html"));
+        assertEquals("html", get(cache, "file:/tmp/templates/pages/a.html"));
+        assertEquals("default", get(cache, "file:/tmp/templates/pages/a.mustache"));
+    }
+
+    @Test
+    public void get_Memoized() throws MalformedURLException {
+
+        CountingRoute route = new CountingRoute(new RecordingCache("r"));
+        RenderableTemplateCache cache = RenderableTemplateCache.ofRoutes(
+                List.of(route),
+                new RecordingCache("default"),
+                new FolderResourceFactory("/tmp/templates").getUrl());
+
+        // the route is remembered by the template
+        Template a = template("a.html");
+        assertEquals("r", cache.get(a, t -> ""));
+        assertEquals("r", cache.get(a, t -> ""));
+        assertEquals(1, route.matchCalls);
+
+        assertEquals("r", cache.get(template("b.html"), t -> ""));
+        assertEquals(2, route.matchCalls);
+
+        // a different template instance is routed again
+        assertEquals("r", cache.get(template("a.html"), t -> ""));
+        assertEquals(3, route.matchCalls);
+    }
+
+    private static Template template(String name) {
+        return new DefaultTemplate(
+                new FolderResourceFactory("/tmp/templates"),
+                "",
+                name,
+                StandardCharsets.UTF_8,
+                null,
+                null);
+    }
+
+    @Test
+    public void ofRoutes_NoRoutes() throws MalformedURLException {
+        RecordingCache defaultCache = new RecordingCache("default");
+        assertSame(defaultCache, RenderableTemplateCache.ofRoutes(List.of(), defaultCache, new URL("file:/tmp/")));
+    }
+
+    @Test
+    public void invalidate() throws MalformedURLException {
+
+        RecordingCache c1 = new RecordingCache("c1");
+        RecordingCache c2 = new RecordingCache("c2");
+        RecordingCache defaultCache = new RecordingCache("default");
+
+        RenderableTemplateCache cache = RenderableTemplateCache.ofRoutes(List.of(
+                new TemplateCacheRoute("a/**", null, c1),
+                new TemplateCacheRoute("b/**", null, c2)), defaultCache, new URL("file:/tmp/templates/"));
+
+        URL url = new URL("file:/tmp/templates/a/x.html");
+        cache.invalidate(url);
+
+        assertEquals(List.of(url), c1.invalidated);
+        assertEquals(List.of(url), c2.invalidated);
+        assertEquals(List.of(url), defaultCache.invalidated);
+    }
+
+    @Test
+    public void close() throws MalformedURLException {
+
+        RecordingCache c1 = new RecordingCache("c1");
+        RecordingCache defaultCache = new RecordingCache("default");
+
+        RenderableTemplateCache cache = RenderableTemplateCache.ofRoutes(
+                List.of(new TemplateCacheRoute("a/**", null, c1)),
+                RenderableTemplateCache.withListeners(defaultCache, List.of(new TemplateCacheListener() {
+                })),
+                new URL("file:/tmp/templates/"));
+
+        cache.close();
+        assertTrue(c1.closed);
+        assertTrue(defaultCache.closed);
+    }
+
+    private static String get(RenderableTemplateCache cache, String url) throws MalformedURLException {
+        return cache.get(new TtlCacheTest.TestTemplate(new URL(url)), t -> "");
+    }
+
+    static class RecordingCache implements RenderableTemplateCache {
+
+        final String name;
+        final List<URL> invalidated = new ArrayList<>();
+        boolean closed;
+
+        RecordingCache(String name) {
+            this.name = name;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Template template, Function<Template, T> renderedTemplateMaker) {
+            return (T) name;
+        }
+
+        @Override
+        public void invalidate(URL templateUrl) {
+            invalidated.add(templateUrl);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    static class CountingRoute extends TemplateCacheRoute {
+
+        int matchCalls;
+
+        CountingRoute(RenderableTemplateCache cache) {
+            super(null, ".html", cache);
+        }
+
+        @Override
+        public boolean matches(String templatePath) {
+            matchCalls++;
+            return super.matches(templatePath);
+        }
+    }
+}
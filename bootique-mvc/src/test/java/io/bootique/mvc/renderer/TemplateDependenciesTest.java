@@ -0,0 +1,228 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TemplateDependenciesTest {
+
+    @Test
+    public void childLoadedOnce() throws MalformedURLException {
+
+        Map<String, String> sources = new HashMap<>();
+        sources.put("p", "P1");
+        AtomicInteger childReads = new AtomicInteger();
+
+        TtlCache cache = new TtlCache(100_000);
+        Template t1 = new ParentTemplate("t1", sources, childReads);
+        Template t2 = new ParentTemplate("t2", sources, childReads);
+
+        assertEquals("t1:P1", cache.get(t1, TemplateDependenciesTest::compile));
+        assertEquals("t2:P1", cache.get(t2, TemplateDependenciesTest::compile));
+        assertEquals(1, childReads.get());
+    }
+
+    @Test
+    public void invalidateChild() throws MalformedURLException {
+
+        Map<String, String> sources = new HashMap<>();
+        sources.put("p", "P1");
+        sources.put("q", "Q1");
+        AtomicInteger childReads = new AtomicInteger();
+
+        TtlCache cache = new TtlCache(100_000);
+        Template t1 = new ParentTemplate("t1", sources, childReads);
+        Template t2 = new ParentTemplate("t2", sources, childReads);
+        Template t3 = new ParentTemplate("t3", sources, childReads);
+
+        AtomicInteger compiles = new AtomicInteger();
+        assertEquals("t1:P1", cache.get(t1, t -> count(compiles, t)));
+        assertEquals("t2:P1", cache.get(t2, t -> count(compiles, t)));
+        assertEquals("t3:Q1", cache.get(t3, t -> count(compiles, t)));
+        assertEquals(3, compiles.get());
+
+        sources.put("p", "P2");
+        cache.invalidate(new URL("file:/tmp/p"));
+
+        assertEquals("t1:P2", cache.get(t1, t -> count(compiles, t)));
+        assertEquals("t2:P2", cache.get(t2, t -> count(compiles, t)));
+        assertEquals("t3:Q1", cache.get(t3, t -> count(compiles, t)));
+
+        // only the dependents are recompiled, and the child is reloaded once
+        assertEquals(5, compiles.get());
+        assertEquals(3, childReads.get());
+    }
+
+    @Test
+    public void childChangeDetectedOnReload() throws MalformedURLException, InterruptedException {
+
+        Map<String, String> sources = new HashMap<>();
+        sources.put("p", "P1");
+        AtomicInteger childReads = new AtomicInteger();
+
+        TtlCache cache = new TtlCache(1000);
+        Template t1 = new ParentTemplate("t1", sources, childReads);
+        Template t2 = new ParentTemplate("t2", sources, childReads);
+
+        assertEquals("t1:P1", cache.get(t1, TemplateDependenciesTest::compile));
+
+        Thread.sleep(400);
+        assertEquals("t2:P1", cache.get(t2, TemplateDependenciesTest::compile));
+
+        // t1 and the child source expire and are reloaded, with the child change propagated to t2 before its TTL
+        Thread.sleep(700);
+        sources.put("p", "P2");
+        assertEquals("t1:P2", cache.get(t1, TemplateDependenciesTest::compile));
+        assertEquals("t2:P2", cache.get(t2, TemplateDependenciesTest::compile));
+        assertEquals(2, childReads.get());
+    }
+
+    @Test
+    public void remove() {
+
+        Map<String, String> sources = new HashMap<>();
+        sources.put("p", "P1");
+        AtomicInteger childReads = new AtomicInteger();
+
+        TemplateDependencies dependencies = new TemplateDependencies(100_000, k -> {
+        });
+        Template t1 = new ParentTemplate("t1", sources, childReads);
+        Template t2 = new ParentTemplate("t2", sources, childReads);
+
+        compile(dependencies.track("file:/tmp/t1", t1));
+        compile(dependencies.track("file:/tmp/t2", t2));
+        assertEquals(Set.of("file:/tmp/t1", "file:/tmp/t2"), dependencies.dependents("file:/tmp/p"));
+        assertEquals(1, childReads.get());
+
+        dependencies.remove("file:/tmp/t1");
+        assertEquals(Set.of("file:/tmp/t2"), dependencies.dependents("file:/tmp/p"));
+
+        // the source is still used by "t2"
+        compile(dependencies.track("file:/tmp/t1", t1));
+        assertEquals(1, childReads.get());
+
+        dependencies.remove("file:/tmp/t1");
+        dependencies.remove("file:/tmp/t2");
+        assertEquals(Set.of(), dependencies.dependents("file:/tmp/p"));
+
+        // the source is dropped with the last dependent
+        compile(dependencies.track("file:/tmp/t1", t1));
+        assertEquals(2, childReads.get());
+    }
+
+    @Test
+    public void track_Namespace() throws MalformedURLException {
+
+        TemplateDependencies dependencies = new TemplateDependencies(100_000, k -> {
+        });
+
+        Template t = new NamespacedTemplateCacheTest.NamespacedTemplate("file:/tmp/t1", "a");
+        assertEquals("a", dependencies.track("file:/tmp/t1", t).getNamespace());
+    }
+
+    private static String count(AtomicInteger counter, Template template) {
+        counter.incrementAndGet();
+        return compile(template);
+    }
+
+    // emulates the compiler that inlines the child into the parent
+    private static String compile(Template template) {
+        String childName = "t3".equals(template.getName()) ? "q" : "p";
+        return read(template.reader()) + ":" + read(template.reader(childName));
+    }
+
+    private static String read(Reader reader) {
+        StringBuilder out = new StringBuilder();
+        char[] buffer = new char[16];
+
+        try (Reader in = reader) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.append(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return out.toString();
+    }
+
+    static class ParentTemplate implements Template {
+
+        final String name;
+        final Map<String, String> sources;
+        final AtomicInteger childReads;
+
+        ParentTemplate(String name, Map<String, String> sources, AtomicInteger childReads) {
+            this.name = name;
+            this.sources = sources;
+            this.childReads = childReads;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public URL getUrl() {
+            return getUrl(name);
+        }
+
+        @Override
+        public URL getUrl(String resourceName) {
+            try {
+                return new URL("file:/tmp/" + resourceName);
+            } catch (MalformedURLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public Reader reader() {
+            return new StringReader(name);
+        }
+
+        @Override
+        public Reader reader(String resourceName) {
+            childReads.incrementAndGet();
+            return new StringReader(sources.get(resourceName));
+        }
+
+        @Override
+        public Charset getEncoding() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -25,11 +25,23 @@ import java.io.Reader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TtlCacheTest {
@@ -83,6 +95,297 @@ public class TtlCacheTest {
         assertTrue(r2c.get() > 5 && r2c.get() < 50, () -> "Unexpected number of c2 refreshes: " + r2c.get());
     }
 
+    @Test
+    public void compileError() throws MalformedURLException {
+
+        TtlCache cache = new TtlCache(100_000);
+        Template t = new TestTemplate(new URL("file:/tmp/t1.txt"));
+
+        assertThrows(StackOverflowError.class, () -> cache.get(t, x -> {
+            throw new StackOverflowError();
+        }));
+
+        // the entry must not be stuck waiting for the failed compilation
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertEquals("ok", cache.get(t, x -> "ok")));
+    }
+
+    @Test
+    public void singleFlight() throws Exception {
+
+        TtlCache cache = new TtlCache(100_000);
+        Template t = new TestTemplate(new URL("file:/tmp/t1.txt"));
+
+        AtomicInteger compiles = new AtomicInteger(0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService threadPool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(threadPool.submit(() -> cache.get(t, x -> {
+                    started.countDown();
+                    await(release);
+                    return compiles.incrementAndGet();
+                })));
+            }
+
+            // let the other threads pile up behind the first compilation
+            started.await();
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<Integer> r : results) {
+                assertEquals(1, (int) r.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            threadPool.shutdown();
+        }
+
+        assertEquals(1, compiles.get());
+    }
+
+    @Test
+    public void revalidate() throws MalformedURLException {
+
+        AtomicLong clock = new AtomicLong();
+        TtlCache cache = new TtlCache(20, null, 0, clock::get);
+
+        AtomicInteger version = new AtomicInteger(1);
+        Template t = new TestTemplate(new URL("file:/tmp/t1.txt")) {
+            @Override
+            public Object getVersion() {
+                return version.get();
+            }
+        };
+
+        AtomicInteger compiles = new AtomicInteger(0);
+
+        assertEquals(1, compile(cache, t, compiles));
+
+        // expired, but not changed
+        clock.addAndGet(millis(30));
+        assertEquals(1, compile(cache, t, compiles));
+
+        version.set(2);
+        assertEquals(1, compile(cache, t, compiles), "Changed template served before the TTL expiration");
+
+        clock.addAndGet(millis(30));
+        assertEquals(2, compile(cache, t, compiles));
+
+        // explicit invalidation ignores the version
+        cache.invalidate(t.getUrl());
+        assertEquals(3, compile(cache, t, compiles));
+    }
+
+    @Test
+    public void builder_MaxSize() {
+        TtlCacheBuilder builder = RenderableTemplateCache.builder(Duration.ofSeconds(1));
+        assertTrue(builder.build() instanceof TtlCache);
+        assertTrue(builder.maxSize(1).build() instanceof BoundedTtlCache);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.maxSize(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxSize(-1));
+    }
+
+    @Test
+    public void asyncRefresh() throws MalformedURLException {
+
+        AtomicLong clock = new AtomicLong();
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        RenderableTemplateCache cache = RenderableTemplateCache.builder(Duration.ofMillis(20))
+                .asyncRefresh(tasks::add)
+                .clock(clock::get)
+                .build();
+
+        Template t = new TestTemplate(new URL("file:/tmp/t1.txt"));
+        AtomicInteger compiles = new AtomicInteger(0);
+
+        // the first load is synchronous
+        assertEquals(1, compile(cache, t, compiles));
+        assertTrue(tasks.isEmpty());
+
+        clock.addAndGet(millis(30));
+        assertEquals(1, compile(cache, t, compiles));
+        assertEquals(1, compile(cache, t, compiles));
+        assertEquals(1, tasks.size(), "Expected a single refresh task");
+
+        tasks.poll().run();
+        assertEquals(2, compile(cache, t, compiles));
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void refreshAhead() throws MalformedURLException {
+
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        RenderableTemplateCache cache = RenderableTemplateCache.builder(Duration.ofSeconds(10))
+                .asyncRefresh(tasks::add)
+                .refreshAhead(Duration.ofSeconds(10))
+                .build();
+
+        Template t = new TestTemplate(new URL("file:/tmp/t1.txt"));
+        AtomicInteger compiles = new AtomicInteger(0);
+
+        assertEquals(1, compile(cache, t, compiles));
+
+        // not expired yet, but within the refresh-ahead interval
+        assertEquals(1, compile(cache, t, compiles));
+        assertEquals(1, tasks.size());
+
+        tasks.poll().run();
+        assertEquals(2, compile(cache, t, compiles));
+    }
+
+    @Test
+    public void errorBackoff() throws MalformedURLException {
+
+        AtomicLong clock = new AtomicLong();
+        RenderableTemplateCache cache = RenderableTemplateCache.builder(Duration.ofSeconds(10))
+                .errorBackoff(Duration.ofMillis(50))
+                .clock(clock::get)
+                .build();
+
+        Template t = new TestTemplate(new URL("file:/tmp/t1.txt"));
+        AtomicInteger attempts = new AtomicInteger(0);
+        AtomicBoolean broken = new AtomicBoolean(true);
+
+        assertThrows(RuntimeException.class, () -> compileOrFail(cache, t, attempts, broken));
+        assertEquals(1, attempts.get());
+
+        // the failure is cached
+        assertThrows(RuntimeException.class, () -> compileOrFail(cache, t, attempts, broken));
+        assertEquals(1, attempts.get());
+
+        broken.set(false);
+        clock.addAndGet(millis(60));
+        assertEquals(2, compileOrFail(cache, t, attempts, broken));
+    }
+
+    @Test
+    public void staleOnError() throws MalformedURLException {
+
+        AtomicLong clock = new AtomicLong();
+        TtlCache cache = new TtlCache(20, null, 0, clock::get);
+
+        Template t = new TestTemplate(new URL("file:/tmp/t1.txt"));
+        AtomicInteger attempts = new AtomicInteger(0);
+        AtomicBoolean broken = new AtomicBoolean(false);
+
+        assertEquals(1, compileOrFail(cache, t, attempts, broken));
+
+        broken.set(true);
+        clock.addAndGet(millis(30));
+
+        // the refresh fails, the last good value is served
+        assertEquals(1, compileOrFail(cache, t, attempts, broken));
+        assertEquals(2, attempts.get());
+
+        // ... and is not retried until the next TTL expiration, even with no error back-off
+        assertEquals(1, compileOrFail(cache, t, attempts, broken));
+        assertEquals(2, attempts.get());
+
+        broken.set(false);
+        clock.addAndGet(millis(30));
+        assertEquals(3, compileOrFail(cache, t, attempts, broken));
+    }
+
+    @Test
+    public void staleOnError_Invalidated() throws MalformedURLException {
+
+        AtomicLong clock = new AtomicLong();
+        TtlCache cache = new TtlCache(20, null, 0, clock::get);
+
+        Template t = new TestTemplate(new URL("file:/tmp/t1.txt"));
+        AtomicInteger attempts = new AtomicInteger(0);
+        AtomicBoolean broken = new AtomicBoolean(false);
+
+        assertEquals(1, compileOrFail(cache, t, attempts, broken));
+
+        // the forced refresh fails, the last good value is served until the next TTL expiration
+        broken.set(true);
+        cache.invalidate(t.getUrl());
+        assertEquals(1, compileOrFail(cache, t, attempts, broken));
+        assertEquals(1, compileOrFail(cache, t, attempts, broken));
+        assertEquals(2, attempts.get());
+
+        broken.set(false);
+        clock.addAndGet(millis(30));
+        assertEquals(3, compileOrFail(cache, t, attempts, broken));
+    }
+
+    @Test
+    public void errorBackoff_NoCache() throws MalformedURLException {
+
+        AtomicLong clock = new AtomicLong();
+        RenderableTemplateCache cache = new NoCache(50, clock::get);
+
+        Template t = new TestTemplate(new URL("file:/tmp/t1.txt"));
+        AtomicInteger attempts = new AtomicInteger(0);
+        AtomicBoolean broken = new AtomicBoolean(true);
+
+        assertThrows(RuntimeException.class, () -> compileOrFail(cache, t, attempts, broken));
+        assertThrows(RuntimeException.class, () -> compileOrFail(cache, t, attempts, broken));
+        assertEquals(1, attempts.get());
+
+        broken.set(false);
+        clock.addAndGet(millis(60));
+        assertEquals(2, compileOrFail(cache, t, attempts, broken));
+        assertEquals(3, compileOrFail(cache, t, attempts, broken));
+    }
+
+    @Test
+    public void errorBackoff_NoCache_PruneExpired() throws MalformedURLException {
+
+        AtomicLong clock = new AtomicLong();
+        NoCache cache = new NoCache(50, clock::get);
+
+        Template t1 = new TestTemplate(new URL("file:/tmp/t1.txt"));
+        Template t2 = new TestTemplate(new URL("file:/tmp/t2.txt"));
+        AtomicInteger attempts = new AtomicInteger(0);
+        AtomicBoolean broken = new AtomicBoolean(true);
+
+        assertThrows(RuntimeException.class, () -> compileOrFail(cache, t1, attempts, broken));
+        assertEquals(1, cache.failuresCount());
+
+        // "t1" is never requested again, but its expired failure is dropped when another template fails
+        clock.addAndGet(millis(60));
+        assertThrows(RuntimeException.class, () -> compileOrFail(cache, t2, attempts, broken));
+        assertEquals(1, cache.failuresCount());
+    }
+
+    private static int compileOrFail(
+            RenderableTemplateCache cache,
+            Template t,
+            AtomicInteger counter,
+            AtomicBoolean broken) {
+
+        return cache.get(t, x -> {
+            int attempt = counter.incrementAndGet();
+            if (broken.get()) {
+                throw new IllegalStateException("Broken template");
+            }
+
+            return attempt;
+        });
+    }
+
+    private static long millis(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static int compile(RenderableTemplateCache cache, Template t, AtomicInteger counter) {
+        return cache.get(t, x -> counter.incrementAndGet());
+    }
+
     static class TestTemplate implements Template {
         final URL url;
 
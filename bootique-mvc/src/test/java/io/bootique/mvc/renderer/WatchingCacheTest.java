@@ -0,0 +1,110 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.renderer;
+
+import io.bootique.mvc.Template;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class WatchingCacheTest {
+
+    @Test
+    public void nonFile() throws IOException {
+
+        try (WatchingCache cache = new WatchingCache()) {
+            TtlCacheTest.TestTemplate t = new TtlCacheTest.TestTemplate(new URL("http://example.org/t1.txt"));
+            AtomicInteger counter = new AtomicInteger();
+
+            assertEquals(1, get(cache, t, counter));
+            assertEquals(1, get(cache, t, counter));
+        }
+    }
+
+    @Test
+    public void invalidate() throws IOException {
+
+        Path dir = Files.createTempDirectory("bq-mvc-watch");
+        Path file = Files.writeString(dir.resolve("t1.txt"), "a");
+
+        try (WatchingCache cache = new WatchingCache()) {
+            TtlCacheTest.TestTemplate t = new TtlCacheTest.TestTemplate(file.toUri().toURL());
+            AtomicInteger counter = new AtomicInteger();
+
+            assertEquals(1, get(cache, t, counter));
+            assertEquals(1, get(cache, t, counter));
+
+            cache.invalidate(file);
+            assertEquals(2, get(cache, t, counter));
+            assertEquals(2, get(cache, t, counter));
+
+            // unknown paths are ignored
+            cache.invalidate(dir.resolve("t2.txt"));
+            assertEquals(2, get(cache, t, counter));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void fileChange() throws IOException, InterruptedException {
+
+        Path dir = Files.createTempDirectory("bq-mvc-watch");
+        Path file = Files.writeString(dir.resolve("t1.txt"), "a");
+
+        try (WatchingCache cache = new WatchingCache()) {
+            TtlCacheTest.TestTemplate t = new TtlCacheTest.TestTemplate(file.toUri().toURL());
+
+            assertEquals("a", cache.get(t, WatchingCacheTest::read));
+
+            Files.writeString(file, "b");
+
+            // the change is detected asynchronously, so wait for it
+            String value = "a";
+            for (int i = 0; i < 100 && !"b".equals(value); i++) {
+                Thread.sleep(100);
+                value = cache.get(t, WatchingCacheTest::read);
+            }
+
+            assertEquals("b", value);
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static int get(WatchingCache cache, Template t, AtomicInteger counter) {
+        return cache.get(t, x -> counter.incrementAndGet());
+    }
+
+    private static String read(Template t) {
+        try {
+            return Files.readString(Path.of(t.getUrl().toURI()));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -31,6 +31,7 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -174,6 +175,116 @@ public class DefaultTemplateResolverTest {
                 resolver.resolve("tName.txt", DefaultTemplateResolverTest.class).getUrl());
     }
 
+    @Test
+    public void resolveByPath() throws MalformedURLException {
+
+        DefaultTemplateResolver resolver = resolver("classpath:");
+
+        Template t = resolver.resolveByPath("io/bootique/mvc/resolver/tName.txt");
+        assertEquals("tName.txt", t.getName());
+        assertEquals(baseClasspathUrl("io/bootique/mvc/resolver/tName.txt"), t.getUrl());
+        assertEquals(baseClasspathUrl("io/bootique/mvc/resolver/tNameChild.txt"), t.getUrl("tNameChild.txt"));
+
+        Template tRoot = resolver.resolveByPath("/rootName.txt");
+        assertEquals("rootName.txt", tRoot.getName());
+        assertEquals(baseClasspathUrl("rootName.txt"), tRoot.getUrl());
+    }
+
+    @Test
+    public void resolve_NamespaceQuota() {
+        DefaultTemplateResolver resolver = new DefaultTemplateResolver(
+                new FolderResourceFactory("/tmp"), DEFAULT_CHARSET, null, null, null, 2, 100);
+
+        Template a1 = resolver.resolve("a/t1.txt", DefaultTemplateResolverTest.class);
+        Template b1 = resolver.resolve("b/t1.txt", DefaultTemplateResolverTest.class);
+        Template t1 = resolver.resolve("t1.txt", DefaultTemplateResolverTest.class);
+        assertEquals("a", a1.getNamespace());
+        assertEquals("b", b1.getNamespace());
+        assertNull(t1.getNamespace());
+
+        // "a" exceeds its quota, evicting its own oldest template, but not the templates of the other namespaces
+        resolver.resolve("a/t2.txt", DefaultTemplateResolverTest.class);
+        resolver.resolve("a/t3.txt", DefaultTemplateResolverTest.class);
+
+        assertNotSame(a1, resolver.resolve("a/t1.txt", DefaultTemplateResolverTest.class));
+        assertSame(b1, resolver.resolve("b/t1.txt", DefaultTemplateResolverTest.class));
+        assertSame(t1, resolver.resolve("t1.txt", DefaultTemplateResolverTest.class));
+    }
+
+    @Test
+    public void resolve_NamespaceQuota_ExplicitNamespace() {
+        DefaultTemplateResolver resolver = new DefaultTemplateResolver(
+                new FolderResourceFactory("/tmp"), DEFAULT_CHARSET, null, null, null, 1, 100);
+
+        Template x = resolver.resolve("t1.txt", "x", DefaultTemplateResolverTest.class);
+        Template y = resolver.resolve("t1.txt", "y", DefaultTemplateResolverTest.class);
+        assertNotSame(x, y);
+        assertEquals("x", x.getNamespace());
+        assertEquals(x.getUrl(), y.getUrl());
+        assertSame(x, resolver.resolve("t1.txt", "x", DefaultTemplateResolverTest.class));
+
+        resolver.resolve("t2.txt", "x", DefaultTemplateResolverTest.class);
+        assertNotSame(x, resolver.resolve("t1.txt", "x", DefaultTemplateResolverTest.class));
+        assertSame(y, resolver.resolve("t1.txt", "y", DefaultTemplateResolverTest.class));
+    }
+
+    @Test
+    public void resolve_MaxNamespaces() {
+        DefaultTemplateResolver resolver = new DefaultTemplateResolver(
+                new FolderResourceFactory("/tmp"), DEFAULT_CHARSET, null, null, null, 10, 2);
+
+        Template a = resolver.resolve("a/t1.txt", DefaultTemplateResolverTest.class);
+        Template x = resolver.resolve("t1.txt", "x", DefaultTemplateResolverTest.class);
+        assertSame(a, resolver.resolve("a/t1.txt", DefaultTemplateResolverTest.class));
+        assertSame(x, resolver.resolve("t1.txt", "x", DefaultTemplateResolverTest.class));
+
+        // the third namespace evicts all the templates of one of the other two
+        Template b = resolver.resolve("b/t1.txt", DefaultTemplateResolverTest.class);
+        assertSame(b, resolver.resolve("b/t1.txt", DefaultTemplateResolverTest.class));
+
+        boolean aEvicted = a != resolver.resolve("a/t1.txt", DefaultTemplateResolverTest.class);
+        boolean xEvicted = x != resolver.resolve("t1.txt", "x", DefaultTemplateResolverTest.class);
+        assertTrue(aEvicted || xEvicted);
+    }
+
+    @Test
+    public void resolve_MaxNamespaces_HitsKeepNamespace() {
+        AtomicLong clock = new AtomicLong();
+        DefaultTemplateResolver resolver = new DefaultTemplateResolver(
+                new FolderResourceFactory("/tmp"), DEFAULT_CHARSET, null, null, null, 10, 2, clock::get);
+
+        Template a = resolver.resolve("a/t1.txt", DefaultTemplateResolverTest.class);
+        clock.addAndGet(2_000_000_000L);
+        Template b = resolver.resolve("b/t1.txt", DefaultTemplateResolverTest.class);
+
+        // "a" is older, but is in use
+        clock.addAndGet(2_000_000_000L);
+        assertSame(a, resolver.resolve("a/t1.txt", DefaultTemplateResolverTest.class));
+
+        clock.addAndGet(2_000_000_000L);
+        resolver.resolve("c/t1.txt", DefaultTemplateResolverTest.class);
+
+        assertSame(a, resolver.resolve("a/t1.txt", DefaultTemplateResolverTest.class));
+        assertNotSame(b, resolver.resolve("b/t1.txt", DefaultTemplateResolverTest.class));
+    }
+
+    @Test
+    public void resolve_NoNamespaceQuota() {
+        DefaultTemplateResolver resolver = resolver("/tmp");
+        Template t = resolver.resolve("a/t1.txt", "x", DefaultTemplateResolverTest.class);
+        assertNull(t.getNamespace());
+        assertSame(t, resolver.resolve("a/t1.txt", DefaultTemplateResolverTest.class));
+    }
+
+    @Test
+    public void namespaceFromName() {
+        assertEquals("a", DefaultTemplateResolver.namespaceFromName("a/b.txt"));
+        assertEquals("a", DefaultTemplateResolver.namespaceFromName("/a/b/c.txt"));
+        assertNull(DefaultTemplateResolver.namespaceFromName("b.txt"));
+        assertNull(DefaultTemplateResolver.namespaceFromName("/b.txt"));
+        assertNull(DefaultTemplateResolver.namespaceFromName("//b.txt"));
+    }
+
     private DefaultTemplateResolver resolver(String basePath) {
         return new DefaultTemplateResolver(new FolderResourceFactory(basePath), DEFAULT_CHARSET, null, null);
     }
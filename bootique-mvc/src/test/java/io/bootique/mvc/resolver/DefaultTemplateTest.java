@@ -18,15 +18,22 @@
  */
 package io.bootique.mvc.resolver;
 
+import io.bootique.mvc.renderer.TemplateRenderer;
+import io.bootique.mvc.renderer.TemplateRenderers;
 import io.bootique.resource.FolderResourceFactory;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.net.URISyntaxException;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,6 +52,139 @@ public class DefaultTemplateTest {
         assertThrows(RuntimeException.class, () -> DefaultTemplate.checkPathWithinBounds("/../a/t.txt"));
     }
 
+    @Test
+    public void getCacheKey() {
+        DefaultTemplate template = new DefaultTemplate(
+                new FolderResourceFactory("classpath:io/bootique/mvc/resolver"),
+                "",
+                "tName.txt",
+                StandardCharsets.UTF_8,
+                null,
+                null);
+
+        String key = template.getCacheKey();
+        assertEquals(template.getUrl().toExternalForm(), key);
+        assertSame(key, template.getCacheKey());
+    }
+
+    @Test
+    public void getRenderer() {
+        DefaultTemplate template = new DefaultTemplate(
+                new FolderResourceFactory("classpath:io/bootique/mvc/resolver"),
+                "",
+                "tName.txt",
+                StandardCharsets.UTF_8,
+                null,
+                null);
+
+        TemplateRenderer r1 = (out, t, model) -> {
+        };
+        TemplateRenderer r2 = (out, t, model) -> {
+        };
+
+        AtomicInteger calls = new AtomicInteger();
+        TemplateRenderers renderers1 = t -> {
+            calls.incrementAndGet();
+            return r1;
+        };
+        TemplateRenderers renderers2 = t -> r2;
+
+        assertSame(r1, template.getRenderer(renderers1));
+        assertSame(r1, template.getRenderer(renderers1));
+        assertEquals(1, calls.get());
+
+        assertSame(r2, template.getRenderer(renderers2));
+    }
+
+    @Test
+    public void getUrl_Child_Caching() {
+        DefaultTemplate template = new DefaultTemplate(
+                new FolderResourceFactory("classpath:io/bootique/mvc/resolver"),
+                "",
+                "tName.txt",
+                StandardCharsets.UTF_8,
+                null,
+                null);
+
+        URL url = template.getUrl("tNameChild.txt");
+        assertNotNull(url);
+        assertSame(url, template.getUrl("tNameChild.txt"));
+        assertNotEquals(url, template.getUrl("tName.txt"));
+
+    }
+
+    @Test
+    public void getUrl_Child_CacheLimit(@TempDir Path dir) {
+        DefaultTemplate template = new DefaultTemplate(
+                new FolderResourceFactory(dir.toString()),
+                "",
+                "tName.txt",
+                StandardCharsets.UTF_8,
+                null,
+                null);
+
+        // must stay correct past the cache size limit
+        for (int i = 0; i < DefaultTemplate.MAX_CACHED_URLS * 2; i++) {
+            assertTrue(template.getUrl("c" + i + ".txt").toExternalForm().endsWith("/c" + i + ".txt"));
+        }
+    }
+
+    @Test
+    public void getUrl_Child_FallbackCached() {
+
+        AtomicInteger failures = new AtomicInteger();
+        DefaultTemplate template = new DefaultTemplate(
+                new FolderResourceFactory("classpath:io/bootique/mvc/resolver"),
+                "",
+                "tName.txt",
+                StandardCharsets.UTF_8,
+                n -> {
+                    failures.incrementAndGet();
+                    return getClass().getResource("tNameFallback.txt");
+                },
+                null);
+
+        URL fallback = template.getUrl("../../../../../x.txt");
+        assertSame(fallback, template.getUrl("../../../../../x.txt"));
+        assertEquals(1, failures.get());
+
+        template.getUrl("tName-MISSING.txt");
+        template.getUrl("tName-MISSING.txt");
+        assertEquals(2, failures.get());
+    }
+
+    @Test
+    public void getUrl_Child_FailuresWithNoFallback() {
+        DefaultTemplate template = new DefaultTemplate(
+                new FolderResourceFactory("classpath:io/bootique/mvc/resolver"),
+                "",
+                "tName.txt",
+                StandardCharsets.UTF_8,
+                null,
+                null);
+
+        assertThrows(RuntimeException.class, () -> template.getUrl("tName-MISSING.txt"));
+        assertThrows(RuntimeException.class, () -> template.getUrl("tName-MISSING.txt"));
+    }
+
+    @Test
+    public void reader_File_Missing_Recover(@TempDir Path dir) throws IOException {
+        DefaultTemplate template = new DefaultTemplate(
+                new FolderResourceFactory(dir.toString()),
+                "",
+                "t.txt",
+                StandardCharsets.UTF_8,
+                null,
+                u -> new StringReader("fallback"));
+
+        assertEquals("fallback", read(template::reader));
+        assertEquals("fallback", read(() -> template.reader("c.txt")));
+
+        // missing files are not cached
+        Files.writeString(dir.resolve("c.txt"), "c");
+        assertEquals("c", read(() -> template.reader("c.txt")));
+    }
+
     @Test
     public void reader_Classpath() {
         DefaultTemplate template = new DefaultTemplate(
@@ -231,6 +371,78 @@ public class DefaultTemplateTest {
         assertEquals("test-in-memory-fallback", read(() -> template.reader("tNameChild.txt")));
     }
 
+    @Test
+    public void getVersion_File(@TempDir Path dir) throws IOException {
+
+        long past = System.currentTimeMillis() - 60_000;
+        Files.writeString(dir.resolve("t.txt"), "a");
+        Files.setLastModifiedTime(dir.resolve("t.txt"), FileTime.fromMillis(past));
+        Files.writeString(dir.resolve("c.txt"), "b");
+        Files.setLastModifiedTime(dir.resolve("c.txt"), FileTime.fromMillis(past));
+
+        DefaultTemplate template = new DefaultTemplate(
+                new FolderResourceFactory(dir.toString()),
+                "",
+                "t.txt",
+                StandardCharsets.UTF_8,
+                null,
+                null);
+
+        Object v1 = template.getVersion();
+        assertNotNull(v1);
+        assertEquals(v1, template.getVersion());
+
+        Object c1 = template.getVersion("c.txt");
+        assertNotNull(c1);
+        assertEquals(c1, template.getVersion("c.txt"));
+
+        Files.writeString(dir.resolve("t.txt"), "aa");
+        Files.setLastModifiedTime(dir.resolve("t.txt"), FileTime.fromMillis(past + 1_000));
+        assertNotEquals(v1, template.getVersion());
+        assertEquals(c1, template.getVersion("c.txt"));
+
+        assertNull(template.getVersion("c-MISSING.txt"));
+    }
+
+    @Test
+    public void getVersion_File_RecentlyModified(@TempDir Path dir) throws IOException {
+
+        Files.writeString(dir.resolve("t.txt"), "a");
+
+        DefaultTemplate template = new DefaultTemplate(
+                new FolderResourceFactory(dir.toString()),
+                "",
+                "t.txt",
+                StandardCharsets.UTF_8,
+                null,
+                null);
+
+        // a same-size change within the timestamp granularity would go unnoticed, so there's no version yet
+        assertNull(template.getVersion());
+
+        Files.setLastModifiedTime(dir.resolve("t.txt"), FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        assertNotNull(template.getVersion());
+    }
+
+    @Test
+    public void getVersion_Classpath() throws Exception {
+
+        // test resources are usually copied right before the tests run, so age the file to get a version
+        Path file = Path.of(getClass().getResource("tName.txt").toURI());
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+
+        DefaultTemplate template = new DefaultTemplate(
+                new FolderResourceFactory("classpath:io/bootique/mvc/resolver"),
+                "",
+                "tName.txt",
+                StandardCharsets.UTF_8,
+                null,
+                null);
+
+        assertNotNull(template.getVersion());
+        assertEquals(template.getVersion(), template.getVersion());
+    }
+
     String read(Supplier<Reader> readerMaker) {
         StringBuilder out = new StringBuilder();
         try (Reader r = readerMaker.get()) {
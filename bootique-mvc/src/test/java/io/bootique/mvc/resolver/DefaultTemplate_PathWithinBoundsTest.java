@@ -0,0 +1,127 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.resolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that {@link DefaultTemplate#checkPathWithinBounds(String)} accepts and rejects exactly the same paths as the
+ * original split-based implementation.
+ */
+public class DefaultTemplate_PathWithinBoundsTest {
+
+    // all the chars that matter to the check, plus a "regular" one
+    private static final char[] ALPHABET = {'.', '/', '\\', 'a'};
+
+    @Test
+    public void allShortPaths() {
+        StringBuilder path = new StringBuilder();
+        for (int len = 0; len <= 8; len++) {
+            checkAllOfLength(path, len);
+        }
+    }
+
+    @Test
+    public void randomLongPaths() {
+
+        // fixed seed to make failures reproducible
+        Random random = new Random(1234);
+
+        for (int i = 0; i < 100_000; i++) {
+            int len = 9 + random.nextInt(40);
+            StringBuilder path = new StringBuilder(len);
+            for (int j = 0; j < len; j++) {
+
+                // bias towards dots and separators to get more traversal attempts
+                path.append(random.nextInt(5) == 0 ? (char) ('a' + random.nextInt(26)) : ALPHABET[random.nextInt(3)]);
+            }
+
+            assertSameResult(path.toString());
+        }
+    }
+
+    @Test
+    public void knownPaths() {
+        assertSameResult("..");
+        assertSameResult("./..");
+        assertSameResult("./../..");
+        assertSameResult("...");
+        assertSameResult("/...");
+        assertSameResult("a/../..");
+        assertSameResult("a\\..\\..");
+        assertSameResult("a/..\\../b");
+        assertSameResult("//..//a");
+        assertSameResult("a/b/../../../c");
+        assertSameResult(".a/..");
+        assertSameResult("a./../..");
+    }
+
+    private void checkAllOfLength(StringBuilder path, int len) {
+        if (path.length() == len) {
+            assertSameResult(path.toString());
+            return;
+        }
+
+        for (char c : ALPHABET) {
+            path.append(c);
+            checkAllOfLength(path, len);
+            path.setLength(path.length() - 1);
+        }
+    }
+
+    private static void assertSameResult(String path) {
+        assertEquals(isWithinBoundsReference(path), isWithinBounds(path), () -> "Mismatch for path: " + path);
+    }
+
+    private static boolean isWithinBounds(String path) {
+        try {
+            DefaultTemplate.checkPathWithinBounds(path);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // the original implementation, kept as a reference
+    private static boolean isWithinBoundsReference(String path) {
+
+        if (path.length() < 2) {
+            return true;
+        }
+
+        int depth = 0;
+        for (String component : path.replace('\\', '/').split("/")) {
+            if (component.length() > 0) {
+                if ("..".equals(component)) {
+                    if (--depth < 0) {
+                        return false;
+                    }
+                } else {
+                    depth++;
+                }
+            }
+        }
+
+        return true;
+    }
+}
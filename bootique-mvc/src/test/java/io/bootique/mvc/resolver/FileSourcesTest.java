@@ -0,0 +1,92 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.resolver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FileSourcesTest {
+
+    @Test
+    public void read_Small(@TempDir Path dir) throws IOException {
+        assertRead(dir, "", StandardCharsets.UTF_8);
+        assertRead(dir, "abc ☺ абв", StandardCharsets.UTF_8);
+        assertRead(dir, "abc ☺ абв", StandardCharsets.UTF_16);
+        assertRead(dir, "abc", StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void read_Large(@TempDir Path dir) throws IOException {
+
+        // multibyte chars crossing the pooled buffer boundary
+        String text = "☺ абв ".repeat(FileSources.POOLED_BUFFER_SIZE / 4);
+        assertRead(dir, text, StandardCharsets.UTF_8);
+        assertRead(dir, text, StandardCharsets.UTF_16);
+    }
+
+    @Test
+    public void read_PooledBufferSize(@TempDir Path dir) throws IOException {
+        assertRead(dir, "a".repeat(FileSources.POOLED_BUFFER_SIZE - 1), StandardCharsets.ISO_8859_1);
+        assertRead(dir, "b".repeat(FileSources.POOLED_BUFFER_SIZE), StandardCharsets.ISO_8859_1);
+        assertRead(dir, "c".repeat(FileSources.POOLED_BUFFER_SIZE + 1), StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void read_Malformed(@TempDir Path dir) throws IOException {
+
+        byte[] bytes = {'a', (byte) 0xC3, 'b', (byte) 0xFF};
+        Path file = dir.resolve("t.txt");
+        Files.write(file, bytes);
+
+        assertEquals(readWithStream(bytes, StandardCharsets.UTF_8), read(file, StandardCharsets.UTF_8));
+    }
+
+    private static void assertRead(Path dir, String text, Charset encoding) throws IOException {
+        Path file = dir.resolve("t.txt");
+        Files.writeString(file, text, encoding);
+        assertEquals(text, read(file, encoding));
+    }
+
+    private static String read(Path file, Charset encoding) throws IOException {
+        return FileSources.read(file, encoding).toString();
+    }
+
+    private static String readWithStream(byte[] bytes, Charset encoding) throws IOException {
+        StringBuilder out = new StringBuilder();
+        try (Reader in = new InputStreamReader(new ByteArrayInputStream(bytes), encoding)) {
+            int c;
+            while ((c = in.read()) >= 0) {
+                out.append((char) c);
+            }
+        }
+
+        return out.toString();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.resolver;
+
+import io.bootique.resource.FolderResourceFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemplateSourceStoreTest {
+
+    @Test
+    public void load(@TempDir Path dir) throws IOException {
+
+        Files.createDirectories(dir.resolve("a"));
+        Files.writeString(dir.resolve("a/t1.txt"), "t1 ☺");
+        Files.writeString(dir.resolve("t2.txt"), "x".repeat(10_000));
+        Files.writeString(dir.resolve("t3.md"), "t3");
+
+        FolderResourceFactory base = new FolderResourceFactory(dir.toString());
+        TemplateSourceStore store = TemplateSourceStore.load(base, StandardCharsets.UTF_8, Set.of(".txt"));
+
+        assertEquals(2, store.size());
+        assertEquals("t1 ☺", read(store.reader(base.getUrl("a/t1.txt"))));
+        assertEquals("x".repeat(10_000), read(store.reader(base.getUrl("t2.txt"))));
+        assertNull(store.reader(base.getUrl("t3.md")));
+        assertNull(store.getVersion(base.getUrl("t3.md")));
+
+        Object v1 = store.getVersion(base.getUrl("a/t1.txt"));
+        assertNotNull(v1);
+        assertEquals(v1, store.getVersion(base.getUrl("a/t1.txt")));
+
+        // the sources of a reloaded store may differ
+        TemplateSourceStore reloaded = TemplateSourceStore.load(base, StandardCharsets.UTF_8, Set.of(".txt"));
+        assertNotEquals(v1, reloaded.getVersion(base.getUrl("a/t1.txt")));
+    }
+
+    @Test
+    public void template(@TempDir Path dir) throws IOException {
+
+        Files.createDirectories(dir.resolve("a"));
+        Files.writeString(dir.resolve("a/t1.txt"), "t1");
+        Files.writeString(dir.resolve("a/c1.txt"), "c1");
+
+        FolderResourceFactory base = new FolderResourceFactory(dir.toString());
+        TemplateSourceStore store = TemplateSourceStore.load(base, StandardCharsets.UTF_8, Set.of(".txt"));
+        DefaultTemplate template = new DefaultTemplate(base, "a/", "t1.txt", StandardCharsets.UTF_8, null, null, store);
+
+        Object version = template.getVersion();
+
+        // the changes on disk are ignored once the sources are in memory
+        Files.writeString(dir.resolve("a/t1.txt"), "t1_changed");
+        Files.writeString(dir.resolve("a/c1.txt"), "c1_changed");
+        Files.writeString(dir.resolve("a/c2.txt"), "c2");
+
+        assertEquals("t1", read(template.reader()));
+        assertEquals("c1", read(template.reader("c1.txt")));
+        assertEquals(version, template.getVersion());
+
+        // not in the store, so read from disk
+        assertEquals("c2", read(template.reader("c2.txt")));
+    }
+
+    private static String read(Reader reader) throws IOException {
+        try (Reader in = reader) {
+            StringBuilder out = new StringBuilder();
+            char[] buffer = new char[1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.append(buffer, 0, read);
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.warmup;
+
+import io.bootique.resource.FolderResourceFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TemplateLocatorTest {
+
+    @Test
+    public void locate_Explicit() {
+        TemplateLocator locator = new TemplateLocator(
+                new FolderResourceFactory("classpath:"),
+                List.of("a/b.mustache", "/c.ftl"),
+                false);
+
+        assertEquals(List.of("a/b.mustache", "c.ftl"), List.copyOf(locator.locate(Set.of(".mustache"))));
+    }
+
+    @Test
+    public void locate_ScanFolder(@TempDir Path tempDir) throws IOException {
+
+        Files.createDirectories(tempDir.resolve("x/y"));
+        Files.writeString(tempDir.resolve("t1.mustache"), "");
+        Files.writeString(tempDir.resolve("x/t2.mustache"), "");
+        Files.writeString(tempDir.resolve("x/y/t3.ftl"), "");
+        Files.writeString(tempDir.resolve("x/y/t4.txt"), "");
+
+        TemplateLocator locator = new TemplateLocator(
+                new FolderResourceFactory(tempDir.toString()),
+                List.of("x/t2.mustache"),
+                true);
+
+        assertEquals(
+                List.of("x/t2.mustache", "t1.mustache", "x/y/t3.ftl"),
+                List.copyOf(locator.locate(Set.of(".mustache", ".ftl"))));
+    }
+}
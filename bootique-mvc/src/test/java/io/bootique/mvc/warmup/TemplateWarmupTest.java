@@ -0,0 +1,129 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.mvc.warmup;
+
+import io.bootique.BootiqueException;
+import io.bootique.mvc.Template;
+import io.bootique.mvc.renderer.TemplateRenderer;
+import io.bootique.mvc.resolver.DefaultTemplateResolver;
+import io.bootique.resource.FolderResourceFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemplateWarmupTest {
+
+    @Test
+    public void warmUp_Serial() {
+        TestRenderer renderer = new TestRenderer(Set.of());
+        warmup(renderer, paths(10), 1).warmUp();
+
+        assertEquals(10, renderer.warmedUp.size());
+        assertEquals(Set.of(Thread.currentThread().getName()), Set.copyOf(renderer.warmedUp.values()));
+    }
+
+    @Test
+    public void warmUp_Parallel() {
+        TestRenderer renderer = new TestRenderer(Set.of());
+        warmup(renderer, paths(50), 4).warmUp();
+
+        assertEquals(50, renderer.warmedUp.size());
+        assertFalse(renderer.warmedUp.containsValue(Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void warmUp_Parallel_Failures() {
+        TestRenderer renderer = new TestRenderer(Set.of("t3.mustache", "t7.mustache"));
+
+        BootiqueException e = assertThrows(BootiqueException.class, () -> warmup(renderer, paths(10), 10).warmUp());
+
+        // with 10 threads, all templates are likely to start before the first failure, but can't rely on it,
+        // so checking for at least one of the failures
+        assertTrue(e.getMessage().contains("t3.mustache") || e.getMessage().contains("t7.mustache"), e.getMessage());
+    }
+
+    @Test
+    public void warmUp_Serial_FailFast() {
+        TestRenderer renderer = new TestRenderer(Set.of("t3.mustache"));
+
+        BootiqueException e = assertThrows(BootiqueException.class, () -> warmup(renderer, paths(10), 1).warmUp());
+        assertTrue(e.getMessage().contains("t3.mustache"), e.getMessage());
+        assertEquals(3, renderer.warmedUp.size(), "Must have stopped after the first failure");
+    }
+
+    @Test
+    public void warmUp_UnknownExtension() {
+        TestRenderer renderer = new TestRenderer(Set.of());
+
+        BootiqueException e = assertThrows(
+                BootiqueException.class,
+                () -> warmup(renderer, List.of("t1.txt"), 1).warmUp());
+        assertTrue(e.getMessage().contains("t1.txt"), e.getMessage());
+    }
+
+    private static List<String> paths(int count) {
+        List<String> paths = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            paths.add("t" + i + ".mustache");
+        }
+        return paths;
+    }
+
+    private static TemplateWarmup warmup(TemplateRenderer renderer, List<String> paths, int threads) {
+        FolderResourceFactory base = new FolderResourceFactory("classpath:");
+        return new TemplateWarmup(
+                new DefaultTemplateResolver(base, StandardCharsets.UTF_8, null, null),
+                Map.of(".mustache", renderer),
+                new TemplateLocator(base, paths, false),
+                threads);
+    }
+
+    static class TestRenderer implements TemplateRenderer {
+
+        final Set<String> failing;
+        final Map<String, String> warmedUp;
+
+        TestRenderer(Set<String> failing) {
+            this.failing = failing;
+            this.warmedUp = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        public void render(Writer out, Template template, Object rootModel) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void warmUp(Template template) {
+            if (failing.contains(template.getName())) {
+                throw new RuntimeException("Test failure");
+            }
+
+            warmedUp.put(template.getName(), Thread.currentThread().getName());
+        }
+    }
+}